@@ -0,0 +1,269 @@
+package io.jenkins.plugins.insightappsec;
+
+import io.jenkins.plugins.insightappsec.api.ApiOptions;
+import io.jenkins.plugins.insightappsec.api.CircuitBreakers;
+import io.jenkins.plugins.insightappsec.api.HedgePolicy;
+import io.jenkins.plugins.insightappsec.api.HttpClientCache;
+import io.jenkins.plugins.insightappsec.api.HttpClientRegistry;
+import io.jenkins.plugins.insightappsec.api.PageSizes;
+import io.jenkins.plugins.insightappsec.api.ResponseCache;
+import io.jenkins.plugins.insightappsec.api.RetryPolicy;
+import io.jenkins.plugins.insightappsec.api.SingleFlight;
+import hudson.Extension;
+import hudson.util.FormValidation;
+import jenkins.model.GlobalConfiguration;
+import jenkins.util.SystemProperties;
+import net.sf.json.JSONObject;
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@Extension
+@Symbol("insightAppSec")
+public class InsightAppSecGlobalConfiguration extends GlobalConfiguration {
+
+    public static final int DEFAULT_PAGE_CONCURRENCY = 4;
+    public static final int DEFAULT_CONNECT_TIMEOUT_SECONDS = (int) TimeUnit.MILLISECONDS.toSeconds(HttpClientRegistry.DEFAULT_CONNECT_TIMEOUT_MILLIS);
+    public static final int DEFAULT_READ_TIMEOUT_SECONDS = (int) TimeUnit.MILLISECONDS.toSeconds(HttpClientRegistry.DEFAULT_SOCKET_TIMEOUT_MILLIS);
+
+    /**
+     * Sends all API requests to this base URL instead of the region's, e.g. to a local stand-in when measuring performance.
+     */
+    private static final String API_BASE_URL = SystemProperties.getString(InsightAppSecGlobalConfiguration.class.getName() + ".apiBaseUrl");
+
+    private int maxConnections = HttpClientCache.DEFAULT_MAX_CONNECTIONS;
+    private int maxConnectionsPerRoute = HttpClientCache.DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+    private int pageConcurrency = DEFAULT_PAGE_CONCURRENCY;
+    private int maxAttempts = RetryPolicy.DEFAULT.getMaxAttempts();
+    private int circuitBreakerFailureRate = CircuitBreakers.DEFAULT_FAILURE_RATE_THRESHOLD;
+    private int requestCompressionThreshold;
+    private boolean adaptivePageSize;
+    private int targetPageSize = PageSizes.DEFAULT_TARGET_KILOBYTES;
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT_SECONDS;
+    private int readTimeout = DEFAULT_READ_TIMEOUT_SECONDS;
+    private boolean hedgeRequests;
+
+    public InsightAppSecGlobalConfiguration() {
+        load();
+        applyConfiguration();
+    }
+
+    public static InsightAppSecGlobalConfiguration get() {
+        return GlobalConfiguration.all().get(InsightAppSecGlobalConfiguration.class);
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    @DataBoundSetter
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+        applyPoolConfiguration();
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    @DataBoundSetter
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        applyPoolConfiguration();
+    }
+
+    public int getPageConcurrency() {
+        return pageConcurrency;
+    }
+
+    @DataBoundSetter
+    public void setPageConcurrency(int pageConcurrency) {
+        this.pageConcurrency = pageConcurrency;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    @DataBoundSetter
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public int getCircuitBreakerFailureRate() {
+        return circuitBreakerFailureRate;
+    }
+
+    @DataBoundSetter
+    public void setCircuitBreakerFailureRate(int circuitBreakerFailureRate) {
+        this.circuitBreakerFailureRate = circuitBreakerFailureRate;
+        applyCircuitBreakerConfiguration();
+    }
+
+    public int getRequestCompressionThreshold() {
+        return requestCompressionThreshold;
+    }
+
+    @DataBoundSetter
+    public void setRequestCompressionThreshold(int requestCompressionThreshold) {
+        this.requestCompressionThreshold = requestCompressionThreshold;
+    }
+
+    public boolean isAdaptivePageSize() {
+        return adaptivePageSize;
+    }
+
+    @DataBoundSetter
+    public void setAdaptivePageSize(boolean adaptivePageSize) {
+        this.adaptivePageSize = adaptivePageSize;
+    }
+
+    public int getTargetPageSize() {
+        return targetPageSize;
+    }
+
+    @DataBoundSetter
+    public void setTargetPageSize(int targetPageSize) {
+        this.targetPageSize = targetPageSize;
+        applyPageSizeConfiguration();
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    @DataBoundSetter
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    @DataBoundSetter
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public boolean isHedgeRequests() {
+        return hedgeRequests;
+    }
+
+    @DataBoundSetter
+    public void setHedgeRequests(boolean hedgeRequests) {
+        this.hedgeRequests = hedgeRequests;
+    }
+
+    /**
+     * @return the options to apply to newly created API instances.
+     */
+    public ApiOptions getApiOptions() {
+        return ApiOptions.builder()
+                         .baseUrl(API_BASE_URL)
+                         .pageConcurrency(Math.max(pageConcurrency, 1))
+                         .retryPolicy(RetryPolicy.DEFAULT.toBuilder()
+                                                         .maxAttempts(Math.max(maxAttempts, 1))
+                                                         .build())
+                         .pageSizes(adaptivePageSize ? PageSizes.GLOBAL : null)
+                         .requestCompressionThreshold(Math.max(requestCompressionThreshold, 0))
+                         .singleFlight(SingleFlight.GLOBAL)
+                         .responseCache(ResponseCache.GLOBAL)
+                         .connectTimeoutMillis(toTimeoutMillis(connectTimeout, DEFAULT_CONNECT_TIMEOUT_SECONDS))
+                         .socketTimeoutMillis(toTimeoutMillis(readTimeout, DEFAULT_READ_TIMEOUT_SECONDS))
+                         .hedgePolicy(hedgeRequests ? HedgePolicy.GLOBAL : null)
+                         .build();
+    }
+
+    public FormValidation doCheckMaxConnections(@QueryParameter String value) {
+        return FormValidation.validatePositiveInteger(value);
+    }
+
+    public FormValidation doCheckMaxConnectionsPerRoute(@QueryParameter String value) {
+        return FormValidation.validatePositiveInteger(value);
+    }
+
+    public FormValidation doCheckPageConcurrency(@QueryParameter String value) {
+        return FormValidation.validatePositiveInteger(value);
+    }
+
+    public FormValidation doCheckMaxAttempts(@QueryParameter String value) {
+        return FormValidation.validatePositiveInteger(value);
+    }
+
+    public FormValidation doCheckCircuitBreakerFailureRate(@QueryParameter String value) {
+        return FormValidation.validateIntegerInRange(value, 1, 100);
+    }
+
+    public FormValidation doCheckRequestCompressionThreshold(@QueryParameter String value) {
+        return FormValidation.validateNonNegativeInteger(value);
+    }
+
+    public FormValidation doCheckTargetPageSize(@QueryParameter String value) {
+        return FormValidation.validatePositiveInteger(value);
+    }
+
+    public FormValidation doCheckConnectTimeout(@QueryParameter String value) {
+        return FormValidation.validatePositiveInteger(value);
+    }
+
+    public FormValidation doCheckReadTimeout(@QueryParameter String value) {
+        return FormValidation.validatePositiveInteger(value);
+    }
+
+    @Override
+    public boolean configure(StaplerRequest req,
+                             JSONObject json) throws FormException {
+        req.bindJSON(this, json); // applied by the setters
+        save();
+        return true;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return Messages.globalConfiguration_displayName();
+    }
+
+    // HELPERS
+
+    /**
+     * Apply the settings which are held outside of the API options, e.g. by the shared connection pool.
+     * Loading the configuration bypasses the setters, which otherwise apply each setting as it is set, e.g. by the
+     * configuration form or configuration as code.
+     */
+    private void applyConfiguration() {
+        applyPoolConfiguration();
+        applyCircuitBreakerConfiguration();
+        applyPageSizeConfiguration();
+    }
+
+    private void applyPoolConfiguration() {
+        if (maxConnections > 0 && maxConnectionsPerRoute > 0) {
+            HttpClientCache.configurePool(maxConnections, maxConnectionsPerRoute);
+        }
+    }
+
+    private void applyCircuitBreakerConfiguration() {
+        if (circuitBreakerFailureRate > 0 && circuitBreakerFailureRate <= 100) {
+            CircuitBreakers.GLOBAL.setFailureRateThreshold(circuitBreakerFailureRate);
+        }
+    }
+
+    /**
+     * @return the timeout in millis, the default for a timeout which is not positive, as 0 would never time out.
+     */
+    private static int toTimeoutMillis(int seconds,
+                                       int defaultSeconds) {
+        return (int) TimeUnit.SECONDS.toMillis(seconds > 0 ? seconds : defaultSeconds);
+    }
+
+    private void applyPageSizeConfiguration() {
+        if (targetPageSize > 0) {
+            PageSizes.GLOBAL.setTargetBytes(targetPageSize * 1024L);
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package io.jenkins.plugins.insightappsec;
+
+import io.jenkins.plugins.insightappsec.api.AdaptiveLimiter;
+import io.jenkins.plugins.insightappsec.api.ApiLimiters;
+import io.jenkins.plugins.insightappsec.api.ApiMetrics;
+import io.jenkins.plugins.insightappsec.api.CircuitBreaker;
+import io.jenkins.plugins.insightappsec.api.CircuitBreakers;
+import io.jenkins.plugins.insightappsec.api.PageSize;
+import io.jenkins.plugins.insightappsec.api.PageSizes;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.ManagementLink;
+
+import java.util.List;
+
+/**
+ * Management page showing how the plugin is using the Application Security API.
+ */
+@Extension
+public class InsightAppSecManagementLink extends ManagementLink {
+
+    @Override
+    public String getIconFileName() {
+        return "symbol-analytics";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "insightappsec";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return Messages.managementLink_displayName();
+    }
+
+    @Override
+    public String getDescription() {
+        return Messages.managementLink_description();
+    }
+
+    @NonNull
+    @Override
+    public Category getCategory() {
+        return Category.STATUS;
+    }
+
+    public ApiMetrics getMetrics() {
+        return ApiMetrics.GLOBAL;
+    }
+
+    public List<AdaptiveLimiter> getLimiters() {
+        return ApiLimiters.GLOBAL.getAll();
+    }
+
+    public List<CircuitBreaker> getCircuitBreakers() {
+        return CircuitBreakers.GLOBAL.getAll();
+    }
+
+    public List<PageSize> getPageSizes() {
+        return PageSizes.GLOBAL.getAll();
+    }
+
+    public int getPolledScanCount() {
+        return ScanStatusPoller.get().getRegisteredCount();
+    }
+
+}
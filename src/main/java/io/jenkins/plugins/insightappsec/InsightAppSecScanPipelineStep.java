@@ -0,0 +1,208 @@
+package io.jenkins.plugins.insightappsec;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.FormValidation;
+import hudson.util.ListBoxModel;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.AncestorInPath;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * Pipeline variant of {@link InsightAppSecScanStep}, accepting the same configuration.
+ * Rather than blocking an executor thread while the scan runs, polling is scheduled asynchronously.
+ */
+public class InsightAppSecScanPipelineStep extends Step implements Serializable {
+
+    private static final long serialVersionUID = -3529407216390546180L;
+
+    private final String region;
+    private final String insightCredentialsId;
+    private final String appId;
+    private final String scanConfigId;
+    private final String buildAdvanceIndicator;
+    private final String vulnerabilityQuery;
+    private final String maxScanPendingDuration;
+    private final String maxScanExecutionDuration;
+    private final boolean enableScanResults;
+
+    @DataBoundConstructor
+    public InsightAppSecScanPipelineStep(String region,
+                                         String insightCredentialsId,
+                                         String appId,
+                                         String scanConfigId,
+                                         String buildAdvanceIndicator,
+                                         String vulnerabilityQuery,
+                                         String maxScanPendingDuration,
+                                         String maxScanExecutionDuration,
+                                         boolean enableScanResults) {
+        this.region = Region.fromString(region).name();
+        this.insightCredentialsId = Util.fixEmptyAndTrim(insightCredentialsId);
+        this.appId = Util.fixEmptyAndTrim(appId);
+        this.scanConfigId = Util.fixEmptyAndTrim(scanConfigId);
+        this.buildAdvanceIndicator = BuildAdvanceIndicator.fromString(buildAdvanceIndicator).name();
+        this.vulnerabilityQuery = Util.fixEmptyAndTrim(vulnerabilityQuery);
+        this.maxScanPendingDuration = Util.fixEmptyAndTrim(maxScanPendingDuration);
+        this.maxScanExecutionDuration = Util.fixEmptyAndTrim(maxScanExecutionDuration);
+        this.enableScanResults = enableScanResults;
+
+        // validates configuration
+        toBuildStep();
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getInsightCredentialsId() {
+        return insightCredentialsId;
+    }
+
+    public String getAppId() {
+        return appId;
+    }
+
+    public String getScanConfigId() {
+        return scanConfigId;
+    }
+
+    public String getBuildAdvanceIndicator() {
+        return buildAdvanceIndicator;
+    }
+
+    public String getVulnerabilityQuery() {
+        return vulnerabilityQuery;
+    }
+
+    public String getMaxScanPendingDuration() {
+        return maxScanPendingDuration;
+    }
+
+    public String getMaxScanExecutionDuration() {
+        return maxScanExecutionDuration;
+    }
+
+    public boolean isEnableScanResults() {
+        return enableScanResults;
+    }
+
+    @Override
+    public StepExecution start(StepContext context) {
+        return new InsightAppSecScanStepExecution(context, this);
+    }
+
+    /**
+     * @return the equivalent build step, which provides the scan runner for this configuration.
+     */
+    InsightAppSecScanStep toBuildStep() {
+        return new InsightAppSecScanStep(region,
+                                         insightCredentialsId,
+                                         appId,
+                                         scanConfigId,
+                                         buildAdvanceIndicator,
+                                         vulnerabilityQuery,
+                                         maxScanPendingDuration,
+                                         maxScanExecutionDuration,
+                                         enableScanResults);
+    }
+
+    @Override
+    public String toString() {
+        return toBuildStep().toString();
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends StepDescriptor {
+
+        private DescriptorHelper descriptorHelper = InsightAppSecScanStep.newDescriptorHelper();
+
+        public ListBoxModel doFillRegionItems() {
+            return descriptorHelper.getRegionItems();
+        }
+
+        public FormValidation doCheckRegion(@QueryParameter String region) {
+            return descriptorHelper.doCheckRequiredField(region);
+        }
+
+        public ListBoxModel doFillInsightCredentialsIdItems(@AncestorInPath Jenkins context) {
+            return descriptorHelper.getInsightCredentialsIdItems(context);
+        }
+
+        public FormValidation doCheckInsightCredentialsId(@QueryParameter String insightCredentialsId) {
+            return descriptorHelper.doCheckRequiredField(insightCredentialsId);
+        }
+
+        public ListBoxModel doFillAppIdItems(@QueryParameter String region,
+                                             @QueryParameter String insightCredentialsId) {
+            return descriptorHelper.getAppIdItems(region, insightCredentialsId);
+        }
+
+        public ListBoxModel doFillScanConfigIdItems(@QueryParameter String region,
+                                                    @QueryParameter String insightCredentialsId,
+                                                    @QueryParameter String appId) {
+            return descriptorHelper.getScanConfigIdItems(region, insightCredentialsId, appId);
+        }
+
+        public FormValidation doCheckScanConfigId(@QueryParameter String scanConfigId) {
+            return descriptorHelper.doCheckRequiredField(scanConfigId);
+        }
+
+        public ListBoxModel doFillBuildAdvanceIndicatorItems() {
+            return descriptorHelper.getBuildAdvanceIndicatorItems();
+        }
+
+        public FormValidation doCheckBuildAdvanceIndicator(@QueryParameter String buildAdvanceIndicator) {
+            return descriptorHelper.doCheckRequiredField(buildAdvanceIndicator);
+        }
+
+        public FormValidation doCheckVulnerabilityQuery() {
+            // no actual validation, just return markup message
+            return descriptorHelper.doCheckVulnerabilityQuery();
+        }
+
+        public FormValidation doCheckMaxScanPendingDuration(@QueryParameter String maxScanPendingDuration) {
+            return descriptorHelper.doCheckMaxScanPendingDuration(maxScanPendingDuration);
+        }
+
+        public FormValidation doCheckMaxScanExecutionDuration(@QueryParameter String maxScanExecutionDuration) {
+            return descriptorHelper.doCheckMaxScanExecutionDuration(maxScanExecutionDuration);
+        }
+
+        public FormValidation doCheckEnableScanResults() {
+            // no actual validation, just return markup message
+            return descriptorHelper.doCheckEnableScanResults();
+        }
+
+        @Override
+        public String getHelpFile(String fieldName) {
+            // share the help of the equivalent build step
+            return Jenkins.get().getDescriptorByType(InsightAppSecScanStep.DescriptorImpl.class).getHelpFile(fieldName);
+        }
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return Set.of(Run.class, TaskListener.class);
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "insightAppSecScan";
+        }
+
+        @Override
+        public String getDisplayName() {
+            return Messages.pipelineStep_displayName();
+        }
+    }
+
+}
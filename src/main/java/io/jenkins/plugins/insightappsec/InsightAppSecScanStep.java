@@ -1,7 +1,9 @@
 package io.jenkins.plugins.insightappsec;
 
 import io.jenkins.plugins.insightappsec.api.APIFactory;
+import io.jenkins.plugins.insightappsec.api.Deadline;
 import io.jenkins.plugins.insightappsec.api.HttpClientCache;
+import io.jenkins.plugins.insightappsec.api.RetryPolicy;
 import io.jenkins.plugins.insightappsec.api.scan.ScanApi;
 import io.jenkins.plugins.insightappsec.api.search.SearchApi;
 import io.jenkins.plugins.insightappsec.credentials.InsightCredentialsHelper;
@@ -23,6 +25,7 @@ import org.kohsuke.stapler.AncestorInPath;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.QueryParameter;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.Optional;
 
 import static java.util.Objects.requireNonNull;
@@ -33,9 +36,10 @@ public class InsightAppSecScanStep extends Builder implements SimpleBuildStep {
     private static final DurationStringParser DURATION_STRING_PARSER = new DurationStringParser();
     private static final ScanResultHandler SCAN_RESULT_HANDLER = new ScanResultHandler();
 
-    private static final APIFactory API_FACTORY = new APIFactory(INSIGHT_CREDENTIALS_HELPER, HttpClientCache.SEARCH_API_HTTP_CLIENT,
-                                                                                             HttpClientCache.APP_API_HTTP_CLIENT,
-                                                                                             HttpClientCache.SCAN_API_HTTP_CLIENT);
+    private static final APIFactory API_FACTORY = new APIFactory(INSIGHT_CREDENTIALS_HELPER, HttpClientCache.SEARCH_API_TRANSPORT,
+                                                                                             HttpClientCache.APP_API_TRANSPORT,
+                                                                                             HttpClientCache.SCAN_API_TRANSPORT,
+                                                                                             () -> InsightAppSecGlobalConfiguration.get().getApiOptions());
 
     private final String region;
     private final String insightCredentialsId;
@@ -117,9 +121,9 @@ public class InsightAppSecScanStep extends Builder implements SimpleBuildStep {
 
         BuildAdvanceIndicator bai = BuildAdvanceIndicator.fromString(buildAdvanceIndicator);
 
-        Optional<ScanResults> scanResults = newRunner(logger).run(scanConfigId,
-                                                                  bai,
-                                                                  vulnerabilityQuery);
+        Optional<ScanResults> scanResults = newRunner(logger, run, System.currentTimeMillis(), null).run(scanConfigId,
+                                                                                                         bai,
+                                                                                                         vulnerabilityQuery);
 
         scanResults.ifPresent(sr -> SCAN_RESULT_HANDLER.handleScanResults(run, logger, bai, sr, enableScanResults));
     }
@@ -133,29 +137,69 @@ public class InsightAppSecScanStep extends Builder implements SimpleBuildStep {
         requireNonNull(buildAdvanceIndicator, "Build Advance Indicator must not be null");
     }
 
-    private InsightAppSecScanStepRunner newRunner(InsightAppSecLogger logger) {
-        ScanApi scanApi = API_FACTORY.newScanApi(region, insightCredentialsId);
-        SearchApi searchApi = API_FACTORY.newSearchApi(region, insightCredentialsId);
+    /**
+     * @param stepStartTimeMillis When the step started, which the max scan durations and the deadline count from,
+     *                            also after the controller restarts.
+     * @param stepId              Identifies the pipeline step within the build, null for other builds.
+     */
+    InsightAppSecScanStepRunner newRunner(InsightAppSecLogger logger,
+                                          Run<?, ?> run,
+                                          long stepStartTimeMillis,
+                                          @Nullable String stepId) {
+        Long maxScanPendingDuration = DURATION_STRING_PARSER.parseDurationString(this.maxScanPendingDuration);
+        Long maxScanExecutionDuration = DURATION_STRING_PARSER.parseDurationString(this.maxScanExecutionDuration);
+
+        // shared by all API calls of the build
+        Deadline deadline = ScanDurationHandler.newDeadline(BuildAdvanceIndicator.fromString(buildAdvanceIndicator),
+                                                            maxScanPendingDuration,
+                                                            maxScanExecutionDuration,
+                                                            stepStartTimeMillis);
+
+        ScanApi scanApi = API_FACTORY.newScanApi(region, insightCredentialsId, logger, deadline);
+        ScanJournal.Recorder scanJournal = ScanJournal.get().recorder(run.getExternalizableId(), insightCredentialsId, region);
+        SearchApi searchApi = API_FACTORY.newSearchApi(region, insightCredentialsId, logger, deadline);
 
         return new InsightAppSecScanStepRunner(scanApi,
                                                searchApi,
                                                logger,
-                                               newScanDurationHandler(scanApi, logger));
+                                               newScanDurationHandler(scanApi, logger, stepStartTimeMillis, maxScanPendingDuration, maxScanExecutionDuration),
+                                               deadline,
+                                               newScanCanceller(region, insightCredentialsId, logger),
+                                               stepId == null ? scanJournal : scanJournal.forStep(stepId),
+                                               ScanStatusPoller.get(),
+                                               System::currentTimeMillis);
     }
 
-    private ScanDurationHandler newScanDurationHandler(ScanApi scanApi,
-                                                       InsightAppSecLogger logger) {
-        Long maxScanPendingDuration = DURATION_STRING_PARSER.parseDurationString(this.maxScanPendingDuration);
-        Long maxScanExecutionDuration = DURATION_STRING_PARSER.parseDurationString(this.maxScanExecutionDuration);
+    /**
+     * @return a canceller with its own API, as the build's deadline is cancelled on abort.
+     */
+    static ScanCanceller newScanCanceller(String region,
+                                          String insightCredentialsId,
+                                          InsightAppSecLogger logger) {
+        // the canceller retries on its own, within its own deadline, so each of its attempts is a single request
+        return new ScanCanceller(deadline -> API_FACTORY.newScanApi(region, insightCredentialsId, logger, deadline, RetryPolicy.NONE),
+                                 logger);
+    }
 
+    private ScanDurationHandler newScanDurationHandler(ScanApi scanApi,
+                                                       InsightAppSecLogger logger,
+                                                       long stepStartTimeMillis,
+                                                       Long maxScanPendingDuration,
+                                                       Long maxScanExecutionDuration) {
         return new ScanDurationHandler(BuildAdvanceIndicator.fromString(buildAdvanceIndicator),
                                        scanApi,
                                        logger,
-                                       System.currentTimeMillis(),
+                                       stepStartTimeMillis,
                                        maxScanPendingDuration,
                                        maxScanExecutionDuration);
     }
 
+    static DescriptorHelper newDescriptorHelper() {
+        return new DescriptorHelper(API_FACTORY,
+                                    INSIGHT_CREDENTIALS_HELPER,
+                                    DURATION_STRING_PARSER);
+    }
+
     @Override
     public String toString() {
         return "{" + '\n' +
@@ -175,9 +219,7 @@ public class InsightAppSecScanStep extends Builder implements SimpleBuildStep {
     @Symbol("insightAppSec")
     public static final class DescriptorImpl extends BuildStepDescriptor<Builder> {
 
-        private DescriptorHelper descriptorHelper = new DescriptorHelper(API_FACTORY,
-                                                                         INSIGHT_CREDENTIALS_HELPER,
-                                                                         DURATION_STRING_PARSER);
+        private DescriptorHelper descriptorHelper = newDescriptorHelper();
 
         public ListBoxModel doFillRegionItems() {
             return descriptorHelper.getRegionItems();
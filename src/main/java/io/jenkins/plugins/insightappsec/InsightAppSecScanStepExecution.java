@@ -0,0 +1,225 @@
+package io.jenkins.plugins.insightappsec;
+
+import io.jenkins.plugins.insightappsec.api.ApiExecutors;
+import io.jenkins.plugins.insightappsec.api.scan.Scan;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Runs an {@link InsightAppSecScanPipelineStep} without blocking a thread while the scan progresses.
+ * The scan is submitted on the shared async executor and then polled by the {@link ScanStatusPoller}.
+ */
+public class InsightAppSecScanStepExecution extends StepExecution {
+
+    private static final long serialVersionUID = 2941370958327418226L;
+
+    private static final ScanResultHandler SCAN_RESULT_HANDLER = new ScanResultHandler();
+
+    private final InsightAppSecScanPipelineStep step;
+
+    private volatile String scanId;
+
+    private long startTimeMillis;
+
+    private final String stepId = UUID.randomUUID().toString();
+
+    private transient InsightAppSecLogger logger;
+    private transient InsightAppSecScanStepRunner runner;
+    private transient ScanStatusTracker tracker;
+    private transient volatile CompletableFuture<Void> reached;
+    private transient volatile boolean stopped;
+    private transient boolean scanCancelled;
+
+    InsightAppSecScanStepExecution(StepContext context,
+                                   InsightAppSecScanPipelineStep step) {
+        super(context);
+        this.step = step;
+    }
+
+    @Override
+    public boolean start() throws Exception {
+        init();
+
+        logger.log("Beginning AppSec scan step with configuration: %n%s", step.toString());
+
+        BuildAdvanceIndicator bai = BuildAdvanceIndicator.fromString(step.getBuildAdvanceIndicator());
+
+        runner.preflightAsync(step.getScanConfigId(), bai, step.getVulnerabilityQuery())
+              .thenApplyAsync(v -> runner.submitScan(step.getScanConfigId()), ApiExecutors.ASYNC)
+              .thenAccept(this::onScanSubmitted)
+              .exceptionally(this::fail);
+
+        return false;
+    }
+
+    @Override
+    public void stop(Throwable cause) throws Exception {
+        stopped = true;
+
+        CompletableFuture<Void> polling = reached;
+        if (polling != null) {
+            polling.cancel(false);
+        }
+
+        // e.g. the pipeline's timeout has fired, so no call of this step may outlive it
+        if (runner != null) {
+            runner.abort();
+        }
+
+        cancelScanIfStopped();
+
+        getContext().onFailure(cause);
+    }
+
+    @Override
+    public void onResume() {
+        try {
+            init();
+        } catch (Exception e) {
+            getContext().onFailure(e);
+            return;
+        }
+
+        if (scanId == null) {
+            // the scan may have been submitted, but not yet saved, as the controller restarted
+            ApiExecutors.ASYNC.execute(runner::cancelJournaledScans);
+
+            getContext().onFailure(new IllegalStateException("Controller restarted before the scan was submitted"));
+            return;
+        }
+
+        logger.log("Resuming polling for scan with id: %s", scanId);
+
+        ApiExecutors.ASYNC.execute(() -> {
+            try {
+                onScanSubmitted(scanId);
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+    }
+
+    @Override
+    public String getStatus() {
+        if (scanId == null) {
+            return "submitting scan";
+        }
+
+        return tracker == null ? "scan " + scanId + " submitted" : "polling scan " + scanId;
+    }
+
+    // HELPERS
+
+    private void init() throws IOException, InterruptedException {
+        TaskListener listener = getContext().get(TaskListener.class);
+
+        if (startTimeMillis == 0) { // kept across restarts, so the max scan durations are not counted from scratch
+            startTimeMillis = System.currentTimeMillis();
+        }
+
+        logger = new InsightAppSecLogger(listener.getLogger());
+        runner = step.toBuildStep().newRunner(logger, getContext().get(Run.class), startTimeMillis, stepId);
+    }
+
+    private void onScanSubmitted(String scanId) {
+        this.scanId = scanId;
+        getContext().saveState(); // set after start() returned, so otherwise lost if the controller restarts
+
+        if (cancelScanIfStopped()) { // stopped while the scan was being submitted
+            return;
+        }
+
+        BuildAdvanceIndicator bai = BuildAdvanceIndicator.fromString(step.getBuildAdvanceIndicator());
+        Optional<Scan.ScanStatus> desiredStatus = InsightAppSecScanStepRunner.desiredStatus(bai);
+
+        if (!desiredStatus.isPresent()) {
+            complete();
+            return;
+        }
+
+        tracker = runner.newScanStatusTracker(scanId, desiredStatus.get());
+
+        if (tracker.start()) {
+            complete();
+        } else if (!stopped) {
+            reached = runner.getScanStatusPoller().register(tracker);
+            // results are collected off the poller's threads, as a large result set would hold up polling of other builds
+            reached.whenCompleteAsync((v, t) -> {
+                if (t == null) {
+                    complete();
+                } else {
+                    fail(t);
+                }
+            }, ApiExecutors.ASYNC);
+        }
+    }
+
+    /**
+     * Once stopped, cancel or stop the scan in the background, so it frees its scan engine. Only done once, as both
+     * stopping and the scan being submitted may lead here.
+     * @return whether the step has been stopped.
+     */
+    private synchronized boolean cancelScanIfStopped() {
+        if (!stopped) {
+            return false;
+        }
+
+        if (scanId != null && runner != null && !scanCancelled) {
+            scanCancelled = true;
+
+            String cancelledScanId = scanId;
+            ApiExecutors.ASYNC.execute(() -> runner.cancelScan(cancelledScanId));
+        }
+
+        return true;
+    }
+
+    private void complete() {
+        if (stopped) {
+            return;
+        }
+
+        try {
+            BuildAdvanceIndicator bai = BuildAdvanceIndicator.fromString(step.getBuildAdvanceIndicator());
+
+            Optional<ScanResults> scanResults = runner.collectScanResults(scanId, bai, step.getVulnerabilityQuery());
+
+            if (scanResults.isPresent()) {
+                Run<?, ?> run = getContext().get(Run.class);
+
+                SCAN_RESULT_HANDLER.handleScanResults(run, logger, bai, scanResults.get(), step.isEnableScanResults());
+            }
+
+            runner.releaseScan(scanId);
+
+            getContext().onSuccess(null);
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    private Void fail(Throwable t) {
+        Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+
+        if (!stopped) {
+            if (scanId != null) {
+                // may cancel the scan, which is not to hold up failing the build
+                String failedScanId = scanId;
+                ApiExecutors.ASYNC.execute(() -> runner.failScan(failedScanId, cause));
+            }
+
+            getContext().onFailure(cause);
+        }
+
+        return null;
+    }
+
+}
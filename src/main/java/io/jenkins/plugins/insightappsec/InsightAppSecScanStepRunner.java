@@ -1,154 +1,306 @@
 package io.jenkins.plugins.insightappsec;
 
+import io.jenkins.plugins.insightappsec.api.ApiExecutors;
+import io.jenkins.plugins.insightappsec.api.Deadline;
 import io.jenkins.plugins.insightappsec.api.scan.Scan;
 import io.jenkins.plugins.insightappsec.api.scan.ScanApi;
+import io.jenkins.plugins.insightappsec.api.scanconfig.ScanConfig;
 import io.jenkins.plugins.insightappsec.api.search.SearchApi;
 import io.jenkins.plugins.insightappsec.api.search.SearchRequest;
 import io.jenkins.plugins.insightappsec.api.vulnerability.Vulnerability;
-import io.jenkins.plugins.insightappsec.exception.ScanFailureException;
+import io.jenkins.plugins.insightappsec.exception.APIException;
+import io.jenkins.plugins.insightappsec.exception.DeadlineExceededException;
+import io.jenkins.plugins.insightappsec.exception.PreflightCheckException;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.mutable.MutableInt;
+import org.apache.http.HttpStatus;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class InsightAppSecScanStepRunner {
 
+    /**
+     * Stands in for the id of the scan when checking the vulnerability query before the scan exists.
+     */
+    static final String PREFLIGHT_SCAN_ID = "00000000-0000-0000-0000-000000000000";
+
     private final ScanApi scanApi;
     private final SearchApi searchApi;
 
     private final InsightAppSecLogger logger;
     private final ScanDurationHandler scanDurationHandler;
+    private final Deadline deadline;
+    private final ScanCanceller scanCanceller;
+    private final ScanJournal.Recorder scanJournal;
+    private final ScanStatusPoller scanStatusPoller;
+    private final LongSupplier clock;
 
     InsightAppSecScanStepRunner(ScanApi scanApi,
                                 SearchApi searchApi,
                                 InsightAppSecLogger logger,
                                 ScanDurationHandler scanDurationHandler) {
+        this(scanApi, searchApi, logger, scanDurationHandler, Deadline.unbounded(), null, null,
+             ScanStatusPoller.get(), System::currentTimeMillis);
+    }
+
+    /**
+     * @param deadline         The deadline the APIs were created with, cancelled when the build is aborted.
+     * @param scanCanceller    Cancels or stops the scan when the build is aborted, null to leave it running.
+     * @param scanJournal      Records the scan until the build is done with it, null not to.
+     * @param scanStatusPoller Polls the scan until the build may advance, at the intervals of its poll interval policy.
+     * @param clock            Times the failures of polls against the failure budget, in millis.
+     */
+    InsightAppSecScanStepRunner(ScanApi scanApi,
+                                SearchApi searchApi,
+                                InsightAppSecLogger logger,
+                                ScanDurationHandler scanDurationHandler,
+                                Deadline deadline,
+                                @Nullable ScanCanceller scanCanceller,
+                                @Nullable ScanJournal.Recorder scanJournal,
+                                ScanStatusPoller scanStatusPoller,
+                                LongSupplier clock) {
         this.scanApi = scanApi;
         this.searchApi = searchApi;
         this.logger = logger;
         this.scanDurationHandler = scanDurationHandler;
+        this.deadline = deadline;
+        this.scanCanceller = scanCanceller;
+        this.scanJournal = scanJournal;
+        this.scanStatusPoller = scanStatusPoller;
+        this.clock = clock;
     }
 
     public Optional<ScanResults> run(String scanConfigId,
                                      BuildAdvanceIndicator buildAdvanceIndicator,
                                      @Nullable String vulnerabilityQuery) throws InterruptedException {
+        preflight(scanConfigId, buildAdvanceIndicator, vulnerabilityQuery);
+
         String scanId = submitScan(scanConfigId);
 
+        Optional<ScanResults> scanResults;
+
+        try {
+            Optional<Scan.ScanStatus> desiredStatus = desiredStatus(buildAdvanceIndicator);
+
+            if (desiredStatus.isPresent()) {
+                blockUntilStatus(scanId, desiredStatus.get());
+            }
+
+            scanResults = collectScanResults(scanId, buildAdvanceIndicator, vulnerabilityQuery);
+        } catch (RuntimeException e) {
+            failScan(scanId, e);
+            throw e;
+        }
+
+        releaseScan(scanId);
+
+        return scanResults;
+    }
+
+    /**
+     * @return the status to wait for before advancing the build, if any.
+     */
+    static Optional<Scan.ScanStatus> desiredStatus(BuildAdvanceIndicator buildAdvanceIndicator) {
         switch (buildAdvanceIndicator) {
-            case SCAN_SUBMITTED:
-                // non-blocking
-                return Optional.empty();
             case SCAN_STARTED:
-                blockUntilStatus(scanId, Scan.ScanStatus.RUNNING);
-                return Optional.empty();
+                return Optional.of(Scan.ScanStatus.RUNNING);
             case SCAN_COMPLETED:
-                blockUntilStatus(scanId, Scan.ScanStatus.COMPLETE);
-
-                return Optional.of(new ScanResults(getAllVulnerabilities(scanId, null),
-                                                   scanApi.getScanExecutionDetails(scanId)));
             case VULNERABILITY_QUERY:
-                blockUntilStatus(scanId, Scan.ScanStatus.COMPLETE);
-
-                return Optional.of(new ScanResults(getAllVulnerabilities(scanId, vulnerabilityQuery),
-                                                   scanApi.getScanExecutionDetails(scanId)));
+                return Optional.of(Scan.ScanStatus.COMPLETE);
+            case SCAN_SUBMITTED: // non-blocking
             default:
                 return Optional.empty();
         }
     }
 
-    // HELPERS
+    /**
+     * Abandon the build's API calls, aborting those in flight, e.g. once the build has been aborted or timed out.
+     */
+    void abort() {
+        deadline.cancel();
+    }
 
-    private void blockUntilStatus(String scanId,
-                                  Scan.ScanStatus desiredStatus) throws InterruptedException {
-        logger.log("Beginning polling for scan with id: %s", scanId);
+    /**
+     * Cancel or stop the scan of an aborted build, so it frees its scan engine for other builds.
+     * Unlike the build's other API calls, this is not bounded by the build's deadline, which has been cancelled.
+     */
+    void cancelScan(String scanId) {
+        if (scanCanceller != null && scanCanceller.cancel(scanId)) {
+            releaseScan(scanId);
+        } // otherwise left in the journal, to be stopped once the controller restarts
+    }
 
-        int pollIntervalSeconds = 15;
-        int failureThreshold = 20; // let fail up to 20 times, i.e. 5 minutes of failed polling = failed build
-        MutableInt failedCount = new MutableInt(0);
+    /**
+     * Done with the scan of a failed build. A build which ran out of time leaves its scan running, so the scan is
+     * cancelled or stopped rather than forgotten, and stays in the journal unless that succeeds.
+     */
+    void failScan(String scanId,
+                  Throwable cause) {
+        if (cause instanceof DeadlineExceededException) {
+            logger.log("Build ran out of time, cancelling scan with id: %s", scanId);
+            cancelScan(scanId);
+        } else {
+            releaseScan(scanId);
+        }
+    }
 
-        // perform initial poll and log / cache initial status
-        Optional<Scan> scanOpt = tryGetScan(scanId, failureThreshold, failedCount);
-        Optional<Scan.ScanStatus> cachedStatusOpt = Optional.empty();
+    /**
+     * Cancel or stop the scans the journal holds for the build, e.g. one submitted just before the controller
+     * restarted, before the build had saved which scan it was waiting on.
+     */
+    void cancelJournaledScans() {
+        if (scanJournal != null) {
+            scanJournal.getScanIds().forEach(this::cancelScan);
+        }
+    }
 
-        if (scanOpt.isPresent()) {
-            cachedStatusOpt = Optional.of(scanOpt.get().getStatus());
-            logger.log("Scan status: %s", cachedStatusOpt.get());
+    /**
+     * Forget the scan, once the build is done with it.
+     */
+    void releaseScan(String scanId) {
+        if (scanJournal != null) {
+            scanJournal.release(scanId);
         }
+    }
 
-        while (true) {
-            if (scanOpt.isPresent()) {
-                // failed to set cached status on initial poll, set here in this case
-                if (!cachedStatusOpt.isPresent()) {
-                    cachedStatusOpt = Optional.of(scanOpt.get().getStatus());
-                }
-
-                // log and update cached status upon change
-                if (cachedStatusOpt.get() != scanOpt.get().getStatus()) {
-                    logger.log("Scan status has been updated from %s to %s", cachedStatusOpt.get(),
-                                                                                      scanOpt.get().getStatus());
-                    cachedStatusOpt = Optional.of(scanOpt.get().getStatus());
-                }
-
-                if (scanOpt.get().getStatus() == Scan.ScanStatus.CANCELING ||
-                    scanOpt.get().getStatus() == Scan.ScanStatus.FAILED) {
-                    logger.log("Failing build due to scan status: %s", scanOpt.get().getStatus());
-
-                    throw new ScanFailureException(scanOpt.get().getStatus());
-                }
-
-                // log and exit upon reaching desired state
-                if (scanOpt.get().getStatus() == desiredStatus) {
-                    logger.log("Desired scan status has been reached");
-                    break;
-                }
+    /**
+     * Check the scan can be submitted and its results collected before submitting it, failing in seconds rather than
+     * once the scan has finished: the API key must be accepted, the scan config must exist and the vulnerability query,
+     * if it is to be used, must be accepted by the search endpoint. The checks run concurrently.
+     * @throws PreflightCheckException listing every check which failed.
+     */
+    void preflight(String scanConfigId,
+                   BuildAdvanceIndicator buildAdvanceIndicator,
+                   @Nullable String vulnerabilityQuery) throws InterruptedException {
+        try {
+            preflightAsync(scanConfigId, buildAdvanceIndicator, vulnerabilityQuery).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
-
-            Thread.sleep(TimeUnit.SECONDS.toMillis(pollIntervalSeconds));
-            scanOpt = tryGetScan(scanId, failureThreshold, failedCount);
-
-            scanOpt.ifPresent(scan -> {
-                scanDurationHandler.handleMaxScanPendingDuration(scanId, scan.getStatus());
-                scanDurationHandler.handleMaxScanExecutionDuration(scanId, scan.getStatus());
-            });
+            throw new RuntimeException(e.getCause());
         }
     }
 
-    private String submitScan(String scanConfigId) {
+    /**
+     * @see #preflight
+     */
+    CompletableFuture<Void> preflightAsync(String scanConfigId,
+                                           BuildAdvanceIndicator buildAdvanceIndicator,
+                                           @Nullable String vulnerabilityQuery) {
+        logger.log("Running pre-flight checks");
+
+        CompletableFuture<Optional<String>> scanConfigCheck = check(() -> checkScanConfig(scanConfigId));
+        CompletableFuture<Optional<String>> queryCheck = buildAdvanceIndicator == BuildAdvanceIndicator.VULNERABILITY_QUERY
+                                                         && !StringUtils.isEmpty(vulnerabilityQuery)
+                ? check(() -> checkVulnerabilityQuery(vulnerabilityQuery))
+                : CompletableFuture.completedFuture(Optional.empty());
+
+        return CompletableFuture.allOf(scanConfigCheck, queryCheck)
+                                .thenRun(() -> {
+                                    List<String> failures = Stream.of(scanConfigCheck.join(), queryCheck.join())
+                                                                  .filter(Optional::isPresent)
+                                                                  .map(Optional::get)
+                                                                  .collect(Collectors.toList());
+
+                                    if (!failures.isEmpty()) {
+                                        failures.forEach(failure -> logger.log("Pre-flight check failed: %s", failure));
+                                        throw new PreflightCheckException(failures);
+                                    }
+
+                                    logger.log("Pre-flight checks passed");
+                                });
+    }
+
+    String submitScan(String scanConfigId) {
         logger.log("Submitting scan for scan config with id: %s", scanConfigId);
 
         String scanId = scanApi.submitScan(scanConfigId);
 
+        if (scanJournal != null) {
+            scanJournal.record(scanId);
+        }
+
         logger.log("Scan submitted successfully");
         logger.log("Scan id: %s", scanId);
 
         return scanId;
     }
 
-    private Optional<Scan> tryGetScan(String scanId,
-                                      int failureThreshold,
-                                      MutableInt failedCount) {
-        try {
-            Scan scan = scanApi.getScan(scanId);
-
-            failedCount.setValue(0); // reset the failure count
+    ScanStatusPoller getScanStatusPoller() {
+        return scanStatusPoller;
+    }
 
-            return Optional.of(scan);
-        } catch (Exception e) {
-            failedCount.add(1);
+    ScanStatusTracker newScanStatusTracker(String scanId,
+                                           Scan.ScanStatus desiredStatus) {
+        return new ScanStatusTracker(scanId, desiredStatus, scanApi, logger, scanDurationHandler, clock);
+    }
 
-            if (failedCount.toInteger() > failureThreshold) {
-                throw new RuntimeException(String.format("Scan polling has failed %s times, aborting", failedCount.toString()), e);
-            } else {
+    /**
+     * Collect the results of a scan which has reached the status required by the build advance indicator.
+     */
+    Optional<ScanResults> collectScanResults(String scanId,
+                                             BuildAdvanceIndicator buildAdvanceIndicator,
+                                             @Nullable String vulnerabilityQuery) {
+        switch (buildAdvanceIndicator) {
+            case SCAN_COMPLETED:
+                return Optional.of(new ScanResults(getAllVulnerabilities(scanId, null),
+                                                   scanApi.getScanExecutionDetails(scanId)));
+            case VULNERABILITY_QUERY:
+                return Optional.of(new ScanResults(getAllVulnerabilities(scanId, vulnerabilityQuery),
+                                                   scanApi.getScanExecutionDetails(scanId)));
+            default:
                 return Optional.empty();
+        }
+    }
+
+    // HELPERS
+
+    private void blockUntilStatus(String scanId,
+                                  Scan.ScanStatus desiredStatus) throws InterruptedException {
+        ScanStatusTracker tracker = newScanStatusTracker(scanId, desiredStatus);
+
+        if (tracker.start()) {
+            return;
+        }
+
+        CompletableFuture<Void> reached = scanStatusPoller.register(tracker);
+
+        try {
+            reached.get();
+        } catch (InterruptedException e) {
+            reached.cancel(false);
+            abort();
+            cancelScan(scanId);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw new RuntimeException(e.getCause());
         }
     }
 
     private List<Vulnerability> getAllVulnerabilities(String scanId,
                                                       String vulnerabilityQuery) {
+        SearchRequest searchRequest = new SearchRequest(SearchRequest.SearchType.VULNERABILITY,
+                                                        composeVulnerabilityQuery(scanId, vulnerabilityQuery));
+
+        logger.log("Searching for vulnerabilities using query [%s]", searchRequest.getQuery());
+
+        return searchApi.searchAll(searchRequest, Vulnerability.class);
+    }
+
+    private static String composeVulnerabilityQuery(String scanId,
+                                                    String vulnerabilityQuery) {
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("vulnerability.scans.id='%s'", scanId));
 
@@ -161,11 +313,65 @@ public class InsightAppSecScanStepRunner {
             }
         }
 
-        SearchRequest searchRequest = new SearchRequest(SearchRequest.SearchType.VULNERABILITY, sb.toString());
+        return sb.toString();
+    }
 
-        logger.log("Searching for vulnerabilities using query [%s]", searchRequest.getQuery());
+    /**
+     * Run a pre-flight check on the shared async executor.
+     * @param check returns the reason the check failed, if it did.
+     */
+    private static CompletableFuture<Optional<String>> check(Supplier<Optional<String>> check) {
+        return CompletableFuture.supplyAsync(check, ApiExecutors.ASYNC);
+    }
 
-        return searchApi.searchAll(searchRequest, Vulnerability.class);
+    /**
+     * Look up the scan config, which verifies the API key too.
+     */
+    private Optional<String> checkScanConfig(String scanConfigId) {
+        SearchRequest searchRequest = new SearchRequest(SearchRequest.SearchType.SCAN_CONFIG,
+                                                        String.format("scanconfig.id='%s'", scanConfigId));
+
+        try {
+            List<ScanConfig> scanConfigs = searchApi.searchFirst(searchRequest, ScanConfig.class, 1);
+
+            if (scanConfigs.stream().map(ScanConfig::getId).noneMatch(id -> Objects.equals(id, scanConfigId))) {
+                return Optional.of(String.format("Scan config [%s] was not found", scanConfigId));
+            }
+
+            return Optional.empty();
+        } catch (APIException e) {
+            Integer statusCode = e.getStatusCode();
+
+            if (statusCode != null && statusCode == HttpStatus.SC_UNAUTHORIZED) {
+                return Optional.of("The API key was rejected, check the credentials are valid and have not been revoked");
+            } else if (statusCode != null && statusCode == HttpStatus.SC_FORBIDDEN) {
+                return Optional.of(String.format("The API key is not permitted to access scan config [%s]", scanConfigId));
+            }
+
+            return Optional.of(String.format("Scan config [%s] could not be verified: %s", scanConfigId, e.getMessage()));
+        }
+    }
+
+    /**
+     * Search with the query as it will be composed once the scan has completed, for a single result of a scan which does not exist.
+     */
+    private Optional<String> checkVulnerabilityQuery(String vulnerabilityQuery) {
+        SearchRequest searchRequest = new SearchRequest(SearchRequest.SearchType.VULNERABILITY,
+                                                        composeVulnerabilityQuery(PREFLIGHT_SCAN_ID, vulnerabilityQuery));
+
+        try {
+            searchApi.searchFirst(searchRequest, Vulnerability.class, 1);
+
+            return Optional.empty();
+        } catch (APIException e) {
+            Integer statusCode = e.getStatusCode();
+
+            if (statusCode != null && statusCode == HttpStatus.SC_BAD_REQUEST) {
+                return Optional.of(String.format("Vulnerability query [%s] is invalid", vulnerabilityQuery));
+            }
+
+            return Optional.of(String.format("Vulnerability query [%s] could not be verified: %s", vulnerabilityQuery, e.getMessage()));
+        }
     }
 
 }
@@ -0,0 +1,89 @@
+package io.jenkins.plugins.insightappsec;
+
+import io.jenkins.plugins.insightappsec.api.ApiExecutors;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Stops or cancels the scans in the {@link ScanJournal} whose build is no longer running, e.g. as it did not survive
+ * a controller restart, so they no longer occupy a scan engine with nobody waiting on them.
+ * Scans of builds still running, such as pipelines resuming, are left to their build.
+ */
+public class OrphanedScanReaper {
+
+    private static final Logger LOGGER = Logger.getLogger(OrphanedScanReaper.class.getName());
+
+    private final ScanJournal journal;
+    private final Predicate<String> isBuilding;
+    private final Function<ScanJournal.Entry, ScanCanceller> scanCancellers;
+    private final Executor executor;
+
+    public OrphanedScanReaper(ScanJournal journal,
+                              Predicate<String> isBuilding,
+                              Function<ScanJournal.Entry, ScanCanceller> scanCancellers) {
+        this(journal, isBuilding, scanCancellers, ApiExecutors.ASYNC);
+    }
+
+    /**
+     * @param isBuilding     whether the build of the externalizable id exists and is still running.
+     * @param scanCancellers creates a canceller with the region and credentials of the entry.
+     * @param executor       reaps the orphaned scans in parallel.
+     */
+    OrphanedScanReaper(ScanJournal journal,
+                       Predicate<String> isBuilding,
+                       Function<ScanJournal.Entry, ScanCanceller> scanCancellers,
+                       Executor executor) {
+        this.journal = journal;
+        this.isBuilding = isBuilding;
+        this.scanCancellers = scanCancellers;
+        this.executor = executor;
+    }
+
+    /**
+     * @return completes once every orphaned scan has been stopped or cancelled, or given up on.
+     */
+    public CompletableFuture<Void> reap() {
+        List<ScanJournal.Entry> orphans = journal.getEntries()
+                                                 .stream()
+                                                 .filter(entry -> !isBuilding.test(entry.getBuildId()))
+                                                 .collect(Collectors.toList());
+
+        if (orphans.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        LOGGER.log(Level.INFO, "Stopping {0} orphaned InsightAppSec scan(s)", orphans.size());
+
+        return CompletableFuture.allOf(orphans.stream()
+                                              .map(entry -> CompletableFuture.runAsync(() -> reap(entry), executor))
+                                              .toArray(CompletableFuture[]::new));
+    }
+
+    // HELPERS
+
+    /**
+     * The entry is removed either way: the scan may since have finished or been deleted, and a scan which could not
+     * be stopped is logged to be stopped manually rather than retried on every restart.
+     */
+    private void reap(ScanJournal.Entry entry) {
+        try {
+            if (!scanCancellers.apply(entry).cancel(entry.getScanId())) {
+                LOGGER.log(Level.WARNING, "Orphaned scan with id {0} of build {1} could not be stopped",
+                           new Object[]{entry.getScanId(), entry.getBuildId()});
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, String.format("Error occurred stopping orphaned scan with id %s of build %s",
+                                                    entry.getScanId(), entry.getBuildId()), e);
+        } finally {
+            journal.remove(entry.getScanId());
+        }
+    }
+
+}
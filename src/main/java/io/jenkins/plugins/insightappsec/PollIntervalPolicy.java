@@ -0,0 +1,113 @@
+package io.jenkins.plugins.insightappsec;
+
+import io.jenkins.plugins.insightappsec.api.scan.Scan;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how long to wait before polling a scan again, based on its current status.
+ * Intervals of long-lived statuses stretch exponentially while the status is unchanged,
+ * whereas statuses shortly preceding completion are polled tightly.
+ */
+public class PollIntervalPolicy {
+
+    private static final long DEFAULT_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(15);
+    private static final long MAX_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(60);
+    private static final int STRETCH_AFTER_POLLS = 8; // double the interval after every 8 polls with the same status
+
+    public static final PollIntervalPolicy DEFAULT = new PollIntervalPolicy(defaultIntervals(),
+                                                                            DEFAULT_INTERVAL_MILLIS,
+                                                                            MAX_INTERVAL_MILLIS,
+                                                                            STRETCH_AFTER_POLLS);
+
+    private final Map<Scan.ScanStatus, Interval> intervals;
+    private final long defaultIntervalMillis;
+    private final long maxIntervalMillis;
+    private final int stretchAfterPolls;
+
+    PollIntervalPolicy(Map<Scan.ScanStatus, Interval> intervals,
+                       long defaultIntervalMillis,
+                       long maxIntervalMillis,
+                       int stretchAfterPolls) {
+        this.intervals = intervals;
+        this.defaultIntervalMillis = defaultIntervalMillis;
+        this.maxIntervalMillis = maxIntervalMillis;
+        this.stretchAfterPolls = stretchAfterPolls;
+    }
+
+    /**
+     * @return a policy polling at the same interval regardless of status.
+     */
+    public static PollIntervalPolicy fixed(long intervalMillis) {
+        return new PollIntervalPolicy(new EnumMap<>(Scan.ScanStatus.class), intervalMillis, intervalMillis, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param status the last known status of the scan, null if not yet known.
+     * @param unchangedPolls the number of polls for which the status has been unchanged.
+     * @return the interval to wait before the next poll.
+     */
+    public long intervalMillis(@Nullable Scan.ScanStatus status,
+                               int unchangedPolls) {
+        Interval interval = status == null ? null : intervals.get(status);
+
+        if (interval == null) {
+            return defaultIntervalMillis;
+        }
+
+        if (!interval.stretch) {
+            return interval.millis;
+        }
+
+        int doublings = Math.min(unchangedPolls / stretchAfterPolls, 16);
+
+        return Math.min(interval.millis << doublings, Math.max(maxIntervalMillis, interval.millis));
+    }
+
+    // HELPERS
+
+    private static Map<Scan.ScanStatus, Interval> defaultIntervals() {
+        Map<Scan.ScanStatus, Interval> intervals = new EnumMap<>(Scan.ScanStatus.class);
+
+        // waiting on capacity or a schedule, can take a long time
+        Interval waiting = new Interval(TimeUnit.SECONDS.toMillis(30), true);
+        intervals.put(Scan.ScanStatus.PENDING, waiting);
+        intervals.put(Scan.ScanStatus.QUEUED, waiting);
+        intervals.put(Scan.ScanStatus.PROVISIONING, waiting);
+        intervals.put(Scan.ScanStatus.PAUSED, waiting);
+        intervals.put(Scan.ScanStatus.BLACKED_OUT, waiting);
+        intervals.put(Scan.ScanStatus.AWAITING_AUTHENTICATION, waiting);
+
+        // in progress, may run for hours
+        Interval running = new Interval(TimeUnit.SECONDS.toMillis(15), true);
+        intervals.put(Scan.ScanStatus.RUNNING, running);
+        intervals.put(Scan.ScanStatus.AUTHENTICATING, running);
+        intervals.put(Scan.ScanStatus.AUTHENTICATED, running);
+        intervals.put(Scan.ScanStatus.PAUSING, running);
+        intervals.put(Scan.ScanStatus.RESUMING, running);
+        intervals.put(Scan.ScanStatus.STOPPING, running);
+
+        // about to complete
+        Interval completing = new Interval(TimeUnit.SECONDS.toMillis(5), false);
+        intervals.put(Scan.ScanStatus.SCANNED, completing);
+        intervals.put(Scan.ScanStatus.PROCESSED, completing);
+
+        return intervals;
+    }
+
+    static final class Interval {
+
+        private final long millis;
+        private final boolean stretch;
+
+        Interval(long millis,
+                 boolean stretch) {
+            this.millis = millis;
+            this.stretch = stretch;
+        }
+    }
+
+}
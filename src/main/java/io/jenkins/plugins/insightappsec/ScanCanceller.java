@@ -0,0 +1,145 @@
+package io.jenkins.plugins.insightappsec;
+
+import io.jenkins.plugins.insightappsec.api.Deadline;
+import io.jenkins.plugins.insightappsec.api.RetryPolicy;
+import io.jenkins.plugins.insightappsec.api.scan.Scan;
+import io.jenkins.plugins.insightappsec.api.scan.ScanAction;
+import io.jenkins.plugins.insightappsec.api.scan.ScanApi;
+import io.jenkins.plugins.insightappsec.exception.APIException;
+import org.apache.http.HttpResponse;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cancels or stops the scan of a build which has been aborted, so it no longer occupies a scan engine.
+ * The build's own deadline is cancelled on abort, so the requests are bounded by a short deadline of their own.
+ */
+public class ScanCanceller {
+
+    static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(60);
+    static final int MAX_ATTEMPTS = 3;
+
+    private static final RetryPolicy RETRY_POLICY = RetryPolicy.DEFAULT.toBuilder()
+                                                                   .maxAttempts(MAX_ATTEMPTS)
+                                                                   .build();
+
+    private final Function<Deadline, ScanApi> scanApiFactory;
+    private final InsightAppSecLogger logger;
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * @param scanApiFactory creates a scan API bounded by the deadline given, which should not retry, as the canceller
+     *                       retries on its own.
+     */
+    public ScanCanceller(Function<Deadline, ScanApi> scanApiFactory,
+                         InsightAppSecLogger logger) {
+        this(scanApiFactory, logger, RETRY_POLICY);
+    }
+
+    /**
+     * @param retryPolicy the number of attempts and the backoff between them.
+     */
+    ScanCanceller(Function<Deadline, ScanApi> scanApiFactory,
+                  InsightAppSecLogger logger,
+                  RetryPolicy retryPolicy) {
+        this.scanApiFactory = scanApiFactory;
+        this.logger = logger;
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Cancel the scan if it has not started yet, otherwise stop it. Transient failures are retried after a backoff,
+     * the status being read again before each attempt.
+     * @return whether the scan was cancelled or stopped, or needed neither.
+     */
+    public boolean cancel(String scanId) {
+        Deadline deadline = Deadline.after(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                ScanApi scanApi = scanApiFactory.apply(deadline);
+
+                Scan.ScanStatus status = scanApi.getScan(scanId).getStatus();
+
+                if (status == null) {
+                    // no response code, so retryable like any other transient failure
+                    throw new APIException(String.format("Status of scan with id: %s is unknown", scanId), (HttpResponse) null);
+                }
+
+                Optional<ScanAction.Action> action = actionFor(status);
+
+                if (!action.isPresent()) {
+                    logger.log("Build aborted, scan with id: %s is %s and has been left as is", scanId, status);
+                    return true;
+                }
+
+                logger.log("Build aborted, submitting %s for scan with id: %s", action.get(), scanId);
+
+                scanApi.submitScanAction(scanId, new ScanAction(action.get()));
+
+                logger.log("%s submitted successfully for scan with id: %s", action.get(), scanId);
+                return true;
+            } catch (RuntimeException e) {
+                if (attempt >= retryPolicy.getMaxAttempts() || !isWorthRetrying(e) || !backoff(deadline, attempt, e)) {
+                    logger.log("Failed to cancel scan with id: %s, it may need to be stopped manually: %s", scanId, e.getMessage());
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the action which frees the scan engine of a scan in the status, if it still needs freeing.
+     */
+    static Optional<ScanAction.Action> actionFor(Scan.ScanStatus status) {
+        switch (status) {
+            case PENDING:
+            case QUEUED:
+                return Optional.of(ScanAction.Action.CANCEL);
+            case SCANNED:
+            case PROCESSED:
+            case COMPLETE:
+            case STOPPING:
+            case CANCELING:
+            case FAILED:
+                return Optional.empty();
+            default:
+                return Optional.of(ScanAction.Action.STOP);
+        }
+    }
+
+    // HELPERS
+
+    /**
+     * @return whether another attempt may succeed: only after an error which may resolve itself, i.e. no response or
+     * a 408, 429 or 5xx. Other errors, including an action refused with a 400 or 409, will fail again.
+     */
+    private static boolean isWorthRetrying(RuntimeException e) {
+        return e instanceof APIException && ((APIException) e).isRetryable();
+    }
+
+    /**
+     * Wait before the next attempt, honouring any Retry-After of the failed response.
+     * @return false if the next attempt could not be made in time, or the wait was interrupted.
+     */
+    private boolean backoff(Deadline deadline,
+                            int attempt,
+                            RuntimeException failure) {
+        long delayMillis = retryPolicy.delayMillis(attempt, ((APIException) failure).getResponse());
+
+        if (deadline.remainingMillis() <= delayMillis) {
+            return false;
+        }
+
+        try {
+            Thread.sleep(delayMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
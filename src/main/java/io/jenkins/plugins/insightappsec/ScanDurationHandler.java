@@ -1,12 +1,20 @@
 package io.jenkins.plugins.insightappsec;
 
+import io.jenkins.plugins.insightappsec.api.Deadline;
 import io.jenkins.plugins.insightappsec.api.scan.Scan;
 import io.jenkins.plugins.insightappsec.api.scan.ScanAction;
 import io.jenkins.plugins.insightappsec.api.scan.ScanApi;
 import io.jenkins.plugins.insightappsec.exception.DurationExceededException;
 
+import java.util.concurrent.TimeUnit;
+
 public class ScanDurationHandler {
 
+    /**
+     * The time allowed beyond the max scan durations to cancel or stop the scan and collect its results.
+     */
+    static final long DEADLINE_GRACE_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
     private final BuildAdvanceIndicator buildAdvanceIndicator;
     private final ScanApi scanApi;
     private final InsightAppSecLogger logger;
@@ -33,6 +41,42 @@ public class ScanDurationHandler {
         this.maxScanExecutionDurationMillis = maxScanExecutionDurationMillis;
     }
 
+    /**
+     * @param stepStartTimeMillis When the step started, so a deadline rebuilt once the controller restarts still
+     *                            counts the time already spent.
+     * @return the deadline of the build's API calls: the max durations which apply to the build advance indicator,
+     * plus a grace period, or unbounded unless all of those durations are set. Either way, it may be cancelled on abort.
+     */
+    static Deadline newDeadline(BuildAdvanceIndicator buildAdvanceIndicator,
+                                Long maxScanPendingDurationMillis,
+                                Long maxScanExecutionDurationMillis,
+                                long stepStartTimeMillis) {
+        Long budgetMillis;
+
+        switch (buildAdvanceIndicator) {
+            case SCAN_STARTED:
+                budgetMillis = maxScanPendingDurationMillis;
+                break;
+            case SCAN_COMPLETED:
+            case VULNERABILITY_QUERY:
+                budgetMillis = maxScanPendingDurationMillis == null || maxScanExecutionDurationMillis == null
+                        ? null
+                        : maxScanPendingDurationMillis + maxScanExecutionDurationMillis;
+                break;
+            case SCAN_SUBMITTED:
+            default:
+                budgetMillis = null;
+        }
+
+        if (budgetMillis == null) {
+            return Deadline.unbounded();
+        }
+
+        long elapsedMillis = Math.max(0, System.currentTimeMillis() - stepStartTimeMillis);
+
+        return Deadline.after(Math.max(0, budgetMillis + DEADLINE_GRACE_MILLIS - elapsedMillis), TimeUnit.MILLISECONDS);
+    }
+
     void handleMaxScanPendingDuration(String scanId,
                                       Scan.ScanStatus scanStatus) {
         if (maxScanPendingDurationMillis == null) {
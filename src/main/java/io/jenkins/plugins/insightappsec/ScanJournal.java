@@ -0,0 +1,197 @@
+package io.jenkins.plugins.insightappsec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import hudson.util.AtomicFileWriter;
+import jenkins.model.Jenkins;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import static io.jenkins.plugins.insightappsec.MappingConfiguration.OBJECT_MAPPER_INSTANCE;
+
+/**
+ * The scans submitted by builds which have not finished with them yet, persisted so the scans of builds which did not
+ * survive a controller restart or crash can be stopped by the {@link OrphanedScanReaper}.
+ * Failing to persist is logged rather than thrown, as it must never fail a build.
+ */
+public class ScanJournal {
+
+    private static final Logger LOGGER = Logger.getLogger(ScanJournal.class.getName());
+
+    static final String FILE_NAME = "io.jenkins.plugins.insightappsec.ScanJournal.json";
+
+    private static ScanJournal instance; // guarded by the class
+
+    private final Path file;
+
+    // guarded by this, loaded on first use
+    private Map<String, Entry> entries;
+
+    public ScanJournal(File file) {
+        this.file = file.toPath();
+    }
+
+    /**
+     * @return the journal of the controller, under JENKINS_HOME.
+     */
+    public static synchronized ScanJournal get() {
+        Path file = new File(Jenkins.get().getRootDir(), FILE_NAME).toPath();
+
+        if (instance == null || !instance.file.equals(file)) { // JENKINS_HOME only changes between test runs
+            instance = new ScanJournal(file.toFile());
+        }
+
+        return instance;
+    }
+
+    /**
+     * Record a scan which has been submitted by a build.
+     */
+    public synchronized void add(Entry entry) {
+        entries().put(entry.getScanId(), entry);
+        save();
+    }
+
+    /**
+     * Forget a scan, once its build is done with it or it has been stopped.
+     */
+    public synchronized void remove(String scanId) {
+        if (entries().remove(scanId) != null) {
+            save();
+        }
+    }
+
+    public synchronized List<Entry> getEntries() {
+        return new ArrayList<>(entries().values());
+    }
+
+    /**
+     * @return records the scans of a build, submitted with the credentials in the region.
+     */
+    public Recorder recorder(String buildId,
+                             String credentialsId,
+                             String region) {
+        return new Recorder(this, buildId, credentialsId, region, null);
+    }
+
+    // HELPERS
+
+    private Map<String, Entry> entries() {
+        if (entries == null) {
+            entries = load();
+        }
+
+        return entries;
+    }
+
+    private Map<String, Entry> load() {
+        Map<String, Entry> loaded = new LinkedHashMap<>();
+
+        if (!Files.exists(file)) {
+            return loaded;
+        }
+
+        try {
+            List<Entry> persisted = OBJECT_MAPPER_INSTANCE.readValue(file.toFile(), new TypeReference<List<Entry>>() {});
+            persisted.forEach(entry -> loaded.put(entry.getScanId(), entry));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, String.format("Error occurred reading the scan journal %s, it will be replaced", file), e);
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Written atomically, so a crash mid-write never leaves the journal truncated.
+     */
+    private void save() {
+        try {
+            AtomicFileWriter writer = new AtomicFileWriter(file, StandardCharsets.UTF_8);
+
+            try {
+                writer.write(OBJECT_MAPPER_INSTANCE.writeValueAsString(new ArrayList<>(entries.values())));
+                writer.commit();
+            } finally {
+                writer.abort(); // no-op once committed
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, String.format("Error occurred writing the scan journal %s", file), e);
+        }
+    }
+
+    public static class Recorder {
+
+        private final ScanJournal journal;
+        private final String buildId;
+        private final String credentialsId;
+        private final String region;
+        private final String stepId;
+
+        private Recorder(ScanJournal journal,
+                         String buildId,
+                         String credentialsId,
+                         String region,
+                         String stepId) {
+            this.journal = journal;
+            this.buildId = buildId;
+            this.credentialsId = credentialsId;
+            this.region = region;
+            this.stepId = stepId;
+        }
+
+        /**
+         * @return records the scans of one step of the build, e.g. of a pipeline with parallel scans.
+         */
+        public Recorder forStep(String stepId) {
+            return new Recorder(journal, buildId, credentialsId, region, stepId);
+        }
+
+        public void record(String scanId) {
+            journal.add(new Entry(scanId, buildId, credentialsId, region, stepId));
+        }
+
+        public void release(String scanId) {
+            journal.remove(scanId);
+        }
+
+        /**
+         * @return the scans recorded for the build, or for the step if recording one, which have not been released.
+         */
+        public List<String> getScanIds() {
+            return journal.getEntries()
+                          .stream()
+                          .filter(entry -> buildId.equals(entry.getBuildId()) && Objects.equals(stepId, entry.getStepId()))
+                          .map(Entry::getScanId)
+                          .collect(Collectors.toList());
+        }
+
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Entry {
+
+        private String scanId;
+        private String buildId; // the externalizable id of the build
+        private String credentialsId;
+        private String region;
+        private String stepId; // the pipeline step which submitted the scan, null for other builds
+
+    }
+
+}
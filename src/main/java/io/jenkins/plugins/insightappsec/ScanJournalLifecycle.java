@@ -0,0 +1,48 @@
+package io.jenkins.plugins.insightappsec;
+
+import io.jenkins.plugins.insightappsec.api.ApiExecutors;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Run;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.LogTaskListener;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ties the {@link ScanJournal} to the lifecycle of Jenkins: once the builds have been loaded on startup,
+ * the scans orphaned by builds which did not survive the restart are stopped in the background.
+ */
+public class ScanJournalLifecycle {
+
+    private static final Logger LOGGER = Logger.getLogger(ScanJournalLifecycle.class.getName());
+
+    @Initializer(after = InitMilestone.JOB_LOADED)
+    public static void reapOrphanedScans() {
+        InsightAppSecLogger logger = new InsightAppSecLogger(new LogTaskListener(LOGGER, Level.INFO).getLogger());
+
+        OrphanedScanReaper reaper = new OrphanedScanReaper(ScanJournal.get(),
+                                                           ScanJournalLifecycle::isBuilding,
+                                                           entry -> InsightAppSecScanStep.newScanCanceller(entry.getRegion(),
+                                                                                                           entry.getCredentialsId(),
+                                                                                                           logger));
+
+        // startup must not wait on the API
+        ApiExecutors.ASYNC.execute(reaper::reap);
+    }
+
+    // HELPERS
+
+    private static boolean isBuilding(String buildId) {
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) { // builds of every job must be visible
+            Run<?, ?> run = Run.fromExternalizableId(buildId);
+
+            return run != null && run.isBuilding();
+        } catch (IllegalArgumentException e) { // not a build id
+            return false;
+        }
+    }
+
+}
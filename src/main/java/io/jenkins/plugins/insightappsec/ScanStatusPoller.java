@@ -0,0 +1,201 @@
+package io.jenkins.plugins.insightappsec;
+
+import io.jenkins.plugins.insightappsec.api.ApiExecutors;
+import io.jenkins.plugins.insightappsec.api.scan.Scan;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Controller-wide service polling the scans of all builds from a single scheduler thread.
+ * Each build registers a {@link ScanStatusTracker} and is notified once its desired status has been reached.
+ * Scans due at the same time and sharing a host and API key are looked up together with a single search.
+ * The interval between polls of a scan is decided by a {@link PollIntervalPolicy}.
+ */
+public class ScanStatusPoller {
+
+    static final long TICK_MILLIS = 1000;
+
+    private static final double JITTER = 0.1; // spread polls by up to +/- 10% of the interval
+
+    private final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+
+    private final Executor pollExecutor;
+    private final PollIntervalPolicy pollIntervalPolicy;
+    private final LongSupplier clock;
+
+    ScanStatusPoller(ScheduledExecutorService scheduler,
+                     Executor pollExecutor,
+                     PollIntervalPolicy pollIntervalPolicy,
+                     LongSupplier clock) {
+        this.pollExecutor = pollExecutor;
+        this.pollIntervalPolicy = pollIntervalPolicy;
+        this.clock = clock;
+
+        scheduler.scheduleWithFixedDelay(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public static ScanStatusPoller get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Register a started tracker for polling.
+     * @return a future completing when the desired status has been reached, or exceptionally when polling fails.
+     * Cancelling the future stops polling the scan.
+     */
+    public CompletableFuture<Void> register(ScanStatusTracker tracker) {
+        Registration registration = new Registration(tracker);
+        schedule(registration);
+
+        registrations.add(registration);
+        registration.future.whenComplete((v, t) -> registrations.remove(registration));
+
+        return registration.future;
+    }
+
+    /**
+     * @return the number of scans currently being polled.
+     */
+    public int getRegisteredCount() {
+        return registrations.size();
+    }
+
+    void tick() {
+        long now = clock.getAsLong();
+
+        Map<String, List<Registration>> candidates = new HashMap<>();
+        Set<String> dueKeys = new HashSet<>();
+
+        for (Registration registration : registrations) {
+            long window = (long) (registration.intervalMillis * 2 * JITTER);
+
+            if (registration.polling || registration.nextPollAt > now + window) {
+                continue;
+            }
+
+            String key = registration.tracker.getScanApi().getRequestKey();
+
+            candidates.computeIfAbsent(key, k -> new ArrayList<>()).add(registration);
+
+            if (registration.nextPollAt <= now) {
+                dueKeys.add(key);
+            }
+        }
+
+        // scans due within the jitter window ride along with those already due, aligning them over time
+        for (String key : dueKeys) {
+            List<Registration> batch = candidates.get(key);
+
+            batch.forEach(registration -> registration.polling = true);
+
+            try {
+                pollExecutor.execute(() -> poll(batch));
+            } catch (RuntimeException e) {
+                // never let the scheduler die, fail the affected builds instead
+                batch.forEach(registration -> {
+                    registration.polling = false;
+                    registration.future.completeExceptionally(e);
+                });
+            }
+        }
+    }
+
+    // HELPERS
+
+    private void poll(List<Registration> batch) {
+        if (batch.size() == 1) {
+            Registration registration = batch.get(0);
+            update(registration, registration.tracker::poll);
+            return;
+        }
+
+        List<String> scanIds = batch.stream()
+                                    .map(registration -> registration.tracker.getScanId())
+                                    .collect(Collectors.toList());
+
+        Map<String, Scan> scans;
+        try {
+            // on behalf of every build in the batch, so not cut short by the first one's deadline
+            scans = batch.get(0).tracker.getScanApi().shared().getScans(scanIds);
+        } catch (Exception e) {
+            // e.g. a search outage, which need not fail the builds whose scans can still be looked up directly
+            batch.forEach(registration -> update(registration, registration.tracker::poll));
+            return;
+        }
+
+        for (Registration registration : batch) {
+            Scan scan = scans.get(registration.tracker.getScanId());
+
+            // fall back to a direct lookup for any scan the search did not return
+            update(registration, scan != null ? () -> registration.tracker.onScan(scan)
+                                              : registration.tracker::poll);
+        }
+    }
+
+    private void update(Registration registration,
+                        BooleanSupplier poll) {
+        try {
+            if (registration.future.isDone()) {
+                return;
+            }
+
+            if (poll.getAsBoolean()) {
+                registration.future.complete(null);
+            } else {
+                schedule(registration);
+            }
+        } catch (RuntimeException e) {
+            registration.future.completeExceptionally(e);
+        } finally {
+            registration.polling = false;
+        }
+    }
+
+    private void schedule(Registration registration) {
+        long intervalMillis = pollIntervalPolicy.intervalMillis(registration.tracker.getStatus(),
+                                                                registration.tracker.getUnchangedPolls());
+        long jitter = (long) (intervalMillis * JITTER * (2 * ThreadLocalRandom.current().nextDouble() - 1));
+
+        registration.intervalMillis = intervalMillis;
+        registration.nextPollAt = clock.getAsLong() + intervalMillis + jitter;
+    }
+
+    private static final class Registration {
+
+        private final ScanStatusTracker tracker;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private volatile long intervalMillis;
+        private volatile long nextPollAt;
+        private volatile boolean polling;
+
+        private Registration(ScanStatusTracker tracker) {
+            this.tracker = tracker;
+        }
+    }
+
+    private static final class Holder {
+
+        private static final ScanStatusPoller INSTANCE = new ScanStatusPoller(
+                Executors.newSingleThreadScheduledExecutor(ApiExecutors.daemonThreadFactory("InsightAppSec scan poller")),
+                ApiExecutors.POLLING,
+                PollIntervalPolicy.DEFAULT,
+                System::currentTimeMillis);
+    }
+
+}
@@ -0,0 +1,216 @@
+package io.jenkins.plugins.insightappsec;
+
+import io.jenkins.plugins.insightappsec.api.scan.Scan;
+import io.jenkins.plugins.insightappsec.api.scan.ScanApi;
+import io.jenkins.plugins.insightappsec.exception.APIException;
+import io.jenkins.plugins.insightappsec.exception.CircuitBreakerOpenException;
+import io.jenkins.plugins.insightappsec.exception.ScanFailureException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the status of a single scan, one poll at a time, until a desired status has been reached.
+ * Callers decide how to wait between polls.
+ */
+public class ScanStatusTracker {
+
+    /**
+     * How long polls may keep failing transiently, whatever the poll interval, before the build fails.
+     */
+    static final long FAILURE_BUDGET_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final String scanId;
+    private final Scan.ScanStatus desiredStatus;
+
+    private final ScanApi scanApi;
+    private final InsightAppSecLogger logger;
+    private final ScanDurationHandler scanDurationHandler;
+    private final LongSupplier clock;
+
+    private Scan.ScanStatus cachedStatus;
+    private int unchangedPolls = 0;
+    private int failedCount = 0;
+    private Long failingSinceMillis; // null unless the last poll failed
+    private boolean paused = false;
+
+    ScanStatusTracker(String scanId,
+                      Scan.ScanStatus desiredStatus,
+                      ScanApi scanApi,
+                      InsightAppSecLogger logger,
+                      ScanDurationHandler scanDurationHandler) {
+        this(scanId, desiredStatus, scanApi, logger, scanDurationHandler, System::currentTimeMillis);
+    }
+
+    ScanStatusTracker(String scanId,
+                      Scan.ScanStatus desiredStatus,
+                      ScanApi scanApi,
+                      InsightAppSecLogger logger,
+                      ScanDurationHandler scanDurationHandler,
+                      LongSupplier clock) {
+        this.scanId = scanId;
+        this.desiredStatus = desiredStatus;
+        this.scanApi = scanApi;
+        this.logger = logger;
+        this.scanDurationHandler = scanDurationHandler;
+        this.clock = clock;
+    }
+
+    public String getScanId() {
+        return scanId;
+    }
+
+    ScanApi getScanApi() {
+        return scanApi;
+    }
+
+    /**
+     * @return the last known status, null if no poll has succeeded yet.
+     */
+    Scan.ScanStatus getStatus() {
+        return cachedStatus;
+    }
+
+    /**
+     * @return the number of successful polls since the status last changed.
+     */
+    int getUnchangedPolls() {
+        return unchangedPolls;
+    }
+
+    /**
+     * Perform the initial poll, logging the initial status.
+     * @return true if the desired status has been reached.
+     */
+    public boolean start() {
+        logger.log("Beginning polling for scan with id: %s", scanId);
+
+        // perform initial poll and log / cache initial status
+        Scan scan;
+        try {
+            scan = scanApi.getScan(scanId);
+        } catch (Exception e) {
+            return onPollFailure(e);
+        }
+
+        resetFailures();
+        resume();
+        cachedStatus = scan.getStatus();
+        logger.log("Scan status: %s", cachedStatus);
+
+        return evaluate(scan);
+    }
+
+    /**
+     * Perform a subsequent poll, enforcing max scan durations.
+     * @return true if the desired status has been reached.
+     */
+    public boolean poll() {
+        Scan scan;
+        try {
+            scan = scanApi.getScan(scanId);
+        } catch (Exception e) {
+            return onPollFailure(e);
+        }
+
+        return onScan(scan);
+    }
+
+    /**
+     * Handle the result of a subsequent poll made on behalf of this tracker, e.g. by a batched lookup.
+     * @return true if the desired status has been reached.
+     */
+    boolean onScan(Scan scan) {
+        resetFailures();
+        resume();
+
+        scanDurationHandler.handleMaxScanPendingDuration(scanId, scan.getStatus());
+        scanDurationHandler.handleMaxScanExecutionDuration(scanId, scan.getStatus());
+
+        return evaluate(scan);
+    }
+
+    /**
+     * Handle a failed poll. Errors which will fail again, e.g. a revoked API key, abort immediately,
+     * while transient errors abort once polls have kept failing for longer than the failure budget.
+     * @return false, the desired status is not known to have been reached.
+     */
+    boolean onPollFailure(Exception e) {
+        if (e instanceof CircuitBreakerOpenException) {
+            // the region is degraded, wait for it to recover rather than spending the failure budget
+            if (!paused) {
+                logger.log("Polling paused: %s", e.getMessage());
+                paused = true;
+            }
+            failingSinceMillis = null;
+            return false;
+        }
+
+        if (e instanceof APIException && !((APIException) e).isRetryable()) {
+            logger.log("Scan polling failed with an error which will not resolve itself, aborting: %s", e.getMessage());
+
+            throw (APIException) e;
+        }
+
+        failedCount++;
+
+        if (failingSinceMillis == null) {
+            failingSinceMillis = clock.getAsLong();
+        } else if (clock.getAsLong() - failingSinceMillis > FAILURE_BUDGET_MILLIS) {
+            throw new RuntimeException(String.format("Scan polling has failed %s times over %s seconds, aborting",
+                                                     failedCount,
+                                                     TimeUnit.MILLISECONDS.toSeconds(clock.getAsLong() - failingSinceMillis)),
+                                       e);
+        }
+
+        return false;
+    }
+
+    // HELPERS
+
+    private void resetFailures() {
+        failedCount = 0;
+        failingSinceMillis = null;
+    }
+
+    private void resume() {
+        if (paused) {
+            logger.log("Polling resumed");
+            paused = false;
+        }
+    }
+
+    private boolean evaluate(Scan scan) {
+        Scan.ScanStatus status = scan.getStatus();
+
+        // failed to set cached status on initial poll, set here in this case
+        if (cachedStatus == null) {
+            cachedStatus = status;
+        }
+
+        // log and update cached status upon change
+        if (cachedStatus != status) {
+            logger.log("Scan status has been updated from %s to %s", cachedStatus, status);
+            cachedStatus = status;
+            unchangedPolls = 0;
+        } else {
+            unchangedPolls++;
+        }
+
+        if (status == Scan.ScanStatus.CANCELING ||
+            status == Scan.ScanStatus.FAILED) {
+            logger.log("Failing build due to scan status: %s", status);
+
+            throw new ScanFailureException(status);
+        }
+
+        // log and exit upon reaching desired state
+        if (status == desiredStatus) {
+            logger.log("Desired scan status has been reached");
+            return true;
+        }
+
+        return false;
+    }
+
+}
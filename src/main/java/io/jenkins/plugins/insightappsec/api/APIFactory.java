@@ -1,5 +1,6 @@
 package io.jenkins.plugins.insightappsec.api;
 
+import io.jenkins.plugins.insightappsec.InsightAppSecLogger;
 import io.jenkins.plugins.insightappsec.Region;
 import io.jenkins.plugins.insightappsec.api.app.AppApi;
 import io.jenkins.plugins.insightappsec.api.scan.ScanApi;
@@ -7,41 +8,135 @@ import io.jenkins.plugins.insightappsec.api.search.SearchApi;
 import io.jenkins.plugins.insightappsec.credentials.InsightCredentialsHelper;
 import org.apache.http.client.HttpClient;
 
+import java.util.function.Supplier;
+
 public class APIFactory {
 
     private final InsightCredentialsHelper insightCredentialsHelper;
 
-    private final HttpClient searchApiHttpClient;
-    private final HttpClient appApiHttpClient;
-    private final HttpClient scanApiHttpClient;
+    private final ApiTransport searchApiTransport;
+    private final ApiTransport appApiTransport;
+    private final ApiTransport scanApiTransport;
+
+    private final Supplier<ApiOptions> apiOptionsSupplier;
 
     public APIFactory(InsightCredentialsHelper insightCredentialsHelper,
                       HttpClient searchApiHttpClient,
                       HttpClient appApiHttpClient,
                       HttpClient scanApiHttpClient) {
+        this(insightCredentialsHelper, searchApiHttpClient, appApiHttpClient, scanApiHttpClient, () -> ApiOptions.DEFAULT);
+    }
+
+    public APIFactory(InsightCredentialsHelper insightCredentialsHelper,
+                      HttpClient searchApiHttpClient,
+                      HttpClient appApiHttpClient,
+                      HttpClient scanApiHttpClient,
+                      Supplier<ApiOptions> apiOptionsSupplier) {
+        this(insightCredentialsHelper,
+             ApiTransport.of(searchApiHttpClient),
+             ApiTransport.of(appApiHttpClient),
+             ApiTransport.of(scanApiHttpClient),
+             apiOptionsSupplier);
+    }
+
+    /**
+     * @param apiOptionsSupplier supplies the options of each API created, including any base URL override.
+     */
+    public APIFactory(InsightCredentialsHelper insightCredentialsHelper,
+                      ApiTransport searchApiTransport,
+                      ApiTransport appApiTransport,
+                      ApiTransport scanApiTransport,
+                      Supplier<ApiOptions> apiOptionsSupplier) {
         this.insightCredentialsHelper = insightCredentialsHelper;
-        this.searchApiHttpClient = searchApiHttpClient;
-        this.appApiHttpClient = appApiHttpClient;
-        this.scanApiHttpClient = scanApiHttpClient;
+        this.searchApiTransport = searchApiTransport;
+        this.appApiTransport = appApiTransport;
+        this.scanApiTransport = scanApiTransport;
+        this.apiOptionsSupplier = apiOptionsSupplier;
     }
 
     public SearchApi newSearchApi(String regionString,
                                   String insightCredentialsId) {
-        return new SearchApi(searchApiHttpClient, getHost(regionString), getApiKey(insightCredentialsId));
+        return new SearchApi(searchApiTransport, getHost(regionString), getApiKey(insightCredentialsId), getApiOptions(regionString, insightCredentialsId, null, null));
+    }
+
+    /**
+     * Create a search API reporting to the build log, e.g. when retrying.
+     */
+    public SearchApi newSearchApi(String regionString,
+                                  String insightCredentialsId,
+                                  InsightAppSecLogger logger) {
+        return newSearchApi(regionString, insightCredentialsId, logger, null);
+    }
+
+    /**
+     * Create a search API reporting to the build log, each request bounded by the build's deadline.
+     */
+    public SearchApi newSearchApi(String regionString,
+                                  String insightCredentialsId,
+                                  InsightAppSecLogger logger,
+                                  Deadline deadline) {
+        return new SearchApi(searchApiTransport, getHost(regionString), getApiKey(insightCredentialsId), getApiOptions(regionString, insightCredentialsId, logger, deadline));
     }
 
     public AppApi newAppApi(String regionString,
                             String insightCredentialsId) {
-        return new AppApi(appApiHttpClient, getHost(regionString), getApiKey(insightCredentialsId));
+        return new AppApi(appApiTransport, getHost(regionString), getApiKey(insightCredentialsId), getApiOptions(regionString, insightCredentialsId, null, null));
     }
 
     public ScanApi newScanApi(String regionString,
                               String insightCredentialsId) {
-        return new ScanApi(scanApiHttpClient, getHost(regionString), getApiKey(insightCredentialsId));
+        return new ScanApi(scanApiTransport, getHost(regionString), getApiKey(insightCredentialsId), getApiOptions(regionString, insightCredentialsId, null, null));
+    }
+
+    /**
+     * Create a scan API reporting to the build log, e.g. when retrying.
+     */
+    public ScanApi newScanApi(String regionString,
+                              String insightCredentialsId,
+                              InsightAppSecLogger logger) {
+        return newScanApi(regionString, insightCredentialsId, logger, null);
+    }
+
+    /**
+     * Create a scan API reporting to the build log, each request bounded by the build's deadline.
+     */
+    public ScanApi newScanApi(String regionString,
+                              String insightCredentialsId,
+                              InsightAppSecLogger logger,
+                              Deadline deadline) {
+        return new ScanApi(scanApiTransport, getHost(regionString), getApiKey(insightCredentialsId), getApiOptions(regionString, insightCredentialsId, logger, deadline));
+    }
+
+    /**
+     * Create a scan API retrying by the retry policy rather than the configured one, e.g. {@link RetryPolicy#NONE}
+     * for a caller which retries on its own terms.
+     */
+    public ScanApi newScanApi(String regionString,
+                              String insightCredentialsId,
+                              InsightAppSecLogger logger,
+                              Deadline deadline,
+                              RetryPolicy retryPolicy) {
+        ApiOptions apiOptions = getApiOptions(regionString, insightCredentialsId, logger, deadline).toBuilder()
+                                                                                                   .retryPolicy(retryPolicy)
+                                                                                                   .build();
+
+        return new ScanApi(scanApiTransport, getHost(regionString), getApiKey(insightCredentialsId), apiOptions);
     }
 
     // HELPERS
 
+    private ApiOptions getApiOptions(String regionString,
+                                     String insightCredentialsId,
+                                     InsightAppSecLogger logger,
+                                     Deadline deadline) {
+        return apiOptionsSupplier.get().toBuilder()
+                                       .limiter(ApiLimiters.GLOBAL.get(Region.fromString(regionString).name(), insightCredentialsId))
+                                       .circuitBreaker(CircuitBreakers.GLOBAL.get(Region.fromString(regionString)))
+                                       .logger(logger)
+                                       .deadline(deadline)
+                                       .build();
+    }
+
     private String getHost(String regionString) {
         return Region.fromString(regionString).getAPIHost();
     }
@@ -1,32 +1,63 @@
 package io.jenkins.plugins.insightappsec.api;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.jenkins.plugins.insightappsec.exception.APIException;
-import org.apache.commons.io.IOUtils;
+import io.jenkins.plugins.insightappsec.exception.CircuitBreakerOpenException;
+import io.jenkins.plugins.insightappsec.exception.DeadlineExceededException;
+import io.jenkins.plugins.insightappsec.exception.LimiterTimeoutException;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.http.Header;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
 import org.apache.http.message.AbstractHttpMessage;
 import org.apache.http.util.EntityUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPOutputStream;
 
 import static io.jenkins.plugins.insightappsec.MappingConfiguration.OBJECT_MAPPER_INSTANCE;
 import static java.lang.String.format;
@@ -39,18 +70,66 @@ public abstract class AbstractApi {
     private static final String USER_AGENT_HEADER = "User-Agent";
     private static final String USER_AGENT_HEADER_VALUE = "r7:insightappsec-jenkins-extension/1.0.5";
 
+    // READERS
+
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectReader> PAGE_READERS = new ConcurrentHashMap<>();
+
     // FIELDS
 
-    private final HttpClient client;
+    private final ApiTransport transport;
     private final String host;
     private final String apiKey;
+    private final ApiOptions options;
 
     protected AbstractApi(HttpClient client,
                           String host,
                           String apiKey) {
-        this.client = client;
+        this(client, host, apiKey, ApiOptions.DEFAULT);
+    }
+
+    protected AbstractApi(HttpClient client,
+                          String host,
+                          String apiKey,
+                          ApiOptions options) {
+        this(ApiTransport.of(client), host, apiKey, options);
+    }
+
+    protected AbstractApi(ApiTransport transport,
+                          String host,
+                          String apiKey,
+                          ApiOptions options) {
+        this.transport = transport;
         this.host = host;
         this.apiKey = apiKey;
+        this.options = options;
+    }
+
+    /**
+     * Create an API to the same host with the same API key and transport as another, with other options.
+     */
+    protected AbstractApi(AbstractApi api,
+                          ApiOptions options) {
+        this(api.transport, api.host, api.apiKey, options);
+    }
+
+    /**
+     * @return the options of this API, without the deadline and logger of the build which created it,
+     * for requests made on behalf of many builds.
+     */
+    protected ApiOptions sharedOptions() {
+        return options.toBuilder()
+                      .deadline(null)
+                      .logger(null)
+                      .build();
+    }
+
+    /**
+     * @return a key which is equal for API instances targeting the same host with the same API key,
+     * i.e. instances whose requests may be combined. The API key itself is not exposed.
+     */
+    public String getRequestKey() {
+        return host + "#" + DigestUtils.sha256Hex(apiKey);
     }
 
     /**
@@ -66,7 +145,8 @@ public abstract class AbstractApi {
             URI uri = buildUri(path);
             HttpPost post = createPost(uri, body);
 
-            response = client.execute(post);
+            // submissions are not idempotent, never retry
+            response = execute(post, false);
 
             if (response.getStatusLine().getStatusCode() == HttpStatus.SC_CREATED) {
                 String locationHeader = response.getHeaders(HttpHeaders.LOCATION)[0].getValue();
@@ -102,7 +182,7 @@ public abstract class AbstractApi {
             URI uri = buildUri(path);
             HttpPut put = createPut(uri, body);
 
-            response = client.execute(put);
+            response = execute(put, true);
 
             if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
                 throw new APIException(format("Error occurred during PUT of [%s]. Expected status code [%s]. Response was: %n %s",
@@ -133,18 +213,159 @@ public abstract class AbstractApi {
     protected <T> T getById(String path,
                             String id,
                             Class<T> clazz) {
+        SingleFlight singleFlight = options.getSingleFlight();
+
+        if (singleFlight == null) {
+            return fetchById(path, id, clazz);
+        }
+
+        // identical GETs, including the API key, share one call
+        return singleFlight.execute(resourceKey(path, clazz),
+                                    () -> fetchById(path, id, clazz),
+                                    options.getMetrics());
+    }
+
+    /**
+     * Collect all pages of a particular resources using a GET.
+     * @param path  The path to the resources.
+     * @param clazz The class to map the pages data to.
+     * @return The list of all resources.
+     */
+    protected <T> List<T> getForAll(String path,
+                                    Class<T> clazz) {
+        return getForAll(path, clazz, pageSizeFor(clazz));
+    }
+
+    /**
+     * Collect all pages of a particular resources using a GET.
+     * @param path     The path to the resources.
+     * @param clazz    The class to map the pages data to.
+     * @param pageSize The number of resources to request per page.
+     * @return The list of all resources.
+     */
+    protected <T> List<T> getForAll(String path,
+                                    Class<T> clazz,
+                                    PageSize pageSize) {
+        int size = pageSize.get(); // fixed for the whole collection, as pages are addressed by index and size
+
+        return retrieveAll((index) -> {
+            URI uri = buildUriWithIndex(path, index, size);
+
+            HttpGet get = createGet(uri);
+
+            return retrievePage(clazz, get, pageSize);
+        });
+    }
+
+    /**
+     * Collect all pages of a particular resources using a POST with body.
+     * @param path  The path to the resources.
+     * @param clazz The class to map the pages data to.
+     * @param body  The body to send in each request
+     * @return The list of all resources.
+     */
+    protected <T> List<T> postForAll(String path,
+                                     Class<T> clazz,
+                                     Object body) {
+        return postForAll(path, clazz, body, pageSizeFor(clazz));
+    }
+
+    /**
+     * Collect all pages of a particular resources using a POST with body.
+     * @param path     The path to the resources.
+     * @param clazz    The class to map the pages data to.
+     * @param body     The body to send in each request
+     * @param pageSize The number of resources to request per page.
+     * @return The list of all resources.
+     */
+    protected <T> List<T> postForAll(String path,
+                                     Class<T> clazz,
+                                     Object body,
+                                     PageSize pageSize) {
+        int size = pageSize.get(); // fixed for the whole collection, as pages are addressed by index and size
+
+        return retrieveAll((index) -> {
+            URI uri = buildUriWithIndex(path, index, size);
+
+            HttpPost post = createSearchPost(uri, body);
+
+            return retrievePage(clazz, post, pageSize);
+        });
+    }
+
+    /**
+     * Retrieve only the first page of a particular resource using a POST with body, e.g. to check a query.
+     * @param path  The path to the resources.
+     * @param clazz The class to map the page data to.
+     * @param body  The body to send in the request.
+     * @param size  The number of resources to request.
+     * @return The resources of the first page.
+     */
+    protected <T> List<T> postForFirstPage(String path,
+                                           Class<T> clazz,
+                                           Object body,
+                                           int size) {
+        PageSize pageSize = PageSize.fixed(size);
+
+        URI uri = buildUriWithIndex(path, 0, pageSize.get());
+
+        HttpPost post = createSearchPost(uri, body);
+
+        Page<T> page = retrievePage(clazz, post, pageSize);
+
+        return page.getData() == null ? new ArrayList<>() : page.getData();
+    }
+
+    /**
+     * Lazily stream all pages of a particular resource using a POST with body.
+     * Pages are requested one at a time, only once the consumer has exhausted the previous page,
+     * so short-circuiting the stream avoids requesting the remaining pages.
+     * @param path  The path to the resources.
+     * @param clazz The class to map the pages data to.
+     * @param body  The body to send in each request
+     * @return A sequential stream of all resources.
+     */
+    protected <T> Stream<T> postForStream(String path,
+                                          Class<T> clazz,
+                                          Object body) {
+        PageSize pageSize = pageSizeFor(clazz);
+        int size = pageSize.get(); // fixed for the whole collection, as pages are addressed by index and size
+
+        return streamAll((index) -> {
+            URI uri = buildUriWithIndex(path, index, size);
+
+            HttpPost post = createSearchPost(uri, body);
+
+            return retrievePage(clazz, post, pageSize);
+        });
+    }
+
+    // HELPERS
+
+    private <T> T fetchById(String path,
+                            String id,
+                            Class<T> clazz) {
         HttpResponse response = null;
 
         try {
+            ResponseCache cache = options.getResponseCache();
+            String cacheKey = cache == null ? null : resourceKey(path, clazz);
+            ResponseCache.Entry cached = cache == null ? null : cache.get(cacheKey);
+
             URI uri = buildUri(path);
             HttpGet get = createGet(uri);
+            addValidators(get, cached);
 
-            response = client.execute(get);
+            response = executeHedged(get);
 
-            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                String content = IOUtils.toString(response.getEntity().getContent());
+            int statusCode = response.getStatusLine().getStatusCode();
 
-                return OBJECT_MAPPER_INSTANCE.readValue(content, clazz);
+            if (statusCode == HttpStatus.SC_NOT_MODIFIED && cached != null) {
+                options.getMetrics().recordCacheHit();
+                return readerFor(clazz).readValue(cached.getContent());
+            } else if (statusCode == HttpStatus.SC_OK) {
+                return cache == null ? readContent(response, readerFor(clazz))
+                                     : readerFor(clazz).readValue(readCacheable(response, cache, cacheKey, cached));
             } else {
                 throw new APIException(format("Error occurred during GET for [%s] with id [%s]. Expected status code [%s]. Response was: %n %s",
                                               clazz.getSimpleName(),
@@ -167,42 +388,472 @@ public abstract class AbstractApi {
     }
 
     /**
-     * Collect all pages of a particular resources using a GET.
-     * @param path  The path to the resources.
-     * @param clazz The class to map the pages data to.
-     * @return The list of all resources.
+     * @return a key which is equal for GETs of the same resource, mapped to the same class, with the same API key.
      */
-    protected <T> List<T> getForAll(String path,
-                                    Class<T> clazz) {
-        return retrieveAll((index) -> {
-            URI uri = buildUriWithIndex(path, index);
+    private String resourceKey(String path,
+                               Class<?> clazz) {
+        return getRequestKey() + path + "#" + clazz.getName();
+    }
 
-            HttpGet get = createGet(uri);
+    /**
+     * Make the GET conditional on the cached response having changed, when the API sent validators for it.
+     */
+    private void addValidators(HttpGet get,
+                               ResponseCache.Entry cached) {
+        if (cached == null) {
+            return;
+        }
 
-            return retrievePage(clazz, get);
-        });
+        if (cached.getEtag() != null) {
+            get.addHeader(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+        }
+
+        if (cached.getLastModified() != null) {
+            get.addHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+        }
     }
 
     /**
-     * Collect all pages of a particular resources using a POST with body.
-     * @param path  The path to the resources.
-     * @param clazz The class to map the pages data to.
-     * @param body  The body to send in each request
-     * @return The list of all resources.
+     * @return the base URL of the API, the region's unless overridden, without a trailing slash.
      */
-    protected <T> List<T> postForAll(String path,
-                                     Class<T> clazz,
-                                     Object body) {
-        return retrieveAll((index) -> {
-            URI uri = buildUriWithIndex(path, index);
+    private String getBaseUrl() {
+        String baseUrl = options.getBaseUrl();
 
-            HttpPost post = createPost(uri, body);
+        if (baseUrl == null || baseUrl.isEmpty()) {
+            return format("https://%s/ias/v1", host);
+        }
+
+        return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    /**
+     * Read a full response into the cache. The body is read from the entity stream when the API sent an ETag to revalidate
+     * it by, and is only buffered to be hashed when it did not, so a body identical to the cached one is not parsed again.
+     * @return the content of the response, which each caller maps to its own object.
+     */
+    private JsonNode readCacheable(HttpResponse response,
+                                   ResponseCache cache,
+                                   String cacheKey,
+                                   ResponseCache.Entry cached) throws IOException {
+        Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+        Header lastModified = response.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+
+        String bodyHash = null;
+        JsonNode content;
+
+        if (etag != null) {
+            options.getMetrics().recordCacheMiss();
+            content = OBJECT_MAPPER_INSTANCE.readTree(response.getEntity().getContent());
+        } else {
+            byte[] body = EntityUtils.toByteArray(response.getEntity());
+            bodyHash = DigestUtils.sha256Hex(body);
+
+            if (cached != null && bodyHash.equals(cached.getBodyHash())) {
+                options.getMetrics().recordCacheHit();
+                content = cached.getContent();
+            } else {
+                options.getMetrics().recordCacheMiss();
+                content = OBJECT_MAPPER_INSTANCE.readTree(body);
+            }
+        }
+
+        cache.put(cacheKey, new ResponseCache.Entry(etag == null ? null : etag.getValue(),
+                                                    lastModified == null ? null : lastModified.getValue(),
+                                                    bodyHash,
+                                                    content));
+
+        return content;
+    }
+
+    /**
+     * Execute a request, retrying transient failures according to the retry policy when permitted.
+     * @param request   The request to execute.
+     * @param retryable Whether the request is idempotent and so may be retried.
+     * @return the response of the last attempt.
+     */
+    private HttpResponse execute(HttpUriRequest request,
+                                 boolean retryable) throws IOException {
+        return execute(request, retryable, null);
+    }
+
+    /**
+     * @param sentAt Set to the {@link System#nanoTime()} each attempt is sent at, once through the breaker and limiter,
+     *               so the last attempt alone can be timed. May be null.
+     */
+    private HttpResponse execute(HttpUriRequest request,
+                                 boolean retryable,
+                                 AtomicLong sentAt) throws IOException {
+        RetryPolicy retryPolicy = options.getRetryPolicy();
+        ApiMetrics metrics = options.getMetrics();
+
+        for (int attempt = 1; ; attempt++) {
+            boolean lastAttempt = !retryable || attempt >= retryPolicy.getMaxAttempts();
+            HttpResponse response;
+
+            checkDeadline(request, null);
+            applyTimeouts(request);
+
+            metrics.recordRequest();
+
+            try {
+                response = executeOnce(request, sentAt);
+            } catch (IOException e) {
+                // aborted, or timed out on a timeout capped to the time remaining
+                checkDeadline(request, e);
+
+                if (request.isAborted()) { // e.g. the losing request of a hedged GET
+                    throw e;
+                }
+
+                if (lastAttempt) {
+                    if (retryable) {
+                        metrics.recordRetriesExhausted();
+                    }
+                    throw e;
+                }
+
+                backoff(request, attempt, retryPolicy.delayMillis(attempt, null), e.toString());
+                continue;
+            }
+
+            int statusCode = response.getStatusLine().getStatusCode();
+
+            if (!retryPolicy.isRetryable(statusCode)) {
+                return response;
+            }
+
+            if (lastAttempt) {
+                if (retryable) {
+                    metrics.recordRetriesExhausted();
+                }
+                return response;
+            }
+
+            long delayMillis = retryPolicy.delayMillis(attempt, response);
+            freeConnectionForReuse(response);
+
+            backoff(request, attempt, delayMillis, response.getStatusLine().toString());
+        }
+    }
+
+    /**
+     * Execute a GET, sending it a second time if it has not been answered within the observed p95 latency,
+     * when hedging is enabled. The first response wins and the other request is aborted.
+     */
+    private HttpResponse executeHedged(HttpGet get) throws IOException {
+        HedgePolicy hedgePolicy = options.getHedgePolicy();
+
+        if (hedgePolicy == null) {
+            return execute(get, true);
+        }
+
+        hedgePolicy.onRequest();
+        long delayMillis = hedgePolicy.getDelayMillis();
+
+        if (delayMillis < 0) { // too few latencies observed to tell a slow request
+            AtomicLong sentAt = new AtomicLong();
+            HttpResponse response = execute(get, true, sentAt);
+            recordLatency(hedgePolicy, response, sentAt.get());
+            return response;
+        }
+
+        HttpGet hedge = copyOf(get);
+        AtomicReference<HttpGet> won = new AtomicReference<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        CompletableFuture<HttpResponse> winner = new CompletableFuture<>();
+
+        sendHedgedAttempt(get, hedgePolicy, won, outstanding, winner);
+
+        try {
+            try {
+                return winner.get(delayMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (hedgePolicy.tryAcquireHedge()) {
+                    options.getMetrics().recordHedge();
+                    outstanding.incrementAndGet();
+                    sendHedgedAttempt(hedge, hedgePolicy, won, outstanding, winner);
+                }
+            }
+
+            HttpResponse response = winner.get();
+
+            if (won.get() == hedge) {
+                options.getMetrics().recordHedgeWin();
+            }
+
+            return response;
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + get.getMethod());
+        } finally {
+            // the loser, or both if neither won
+            if (won.get() != get) {
+                get.abort();
+            }
+            if (won.get() != hedge) {
+                hedge.abort();
+            }
+        }
+    }
+
+    /**
+     * Send one request of a hedged GET, completing the winner with its response unless the other was answered first.
+     * The winner only fails once all requests sent have failed.
+     */
+    private void sendHedgedAttempt(HttpGet request,
+                                   HedgePolicy hedgePolicy,
+                                   AtomicReference<HttpGet> won,
+                                   AtomicInteger outstanding,
+                                   CompletableFuture<HttpResponse> winner) {
+        CompletableFuture.supplyAsync(() -> {
+            AtomicLong sentAt = new AtomicLong();
 
-            return retrievePage(clazz, post);
+            try {
+                HttpResponse response = execute(request, true, sentAt);
+                recordLatency(hedgePolicy, response, sentAt.get());
+                return response;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, options.getHedgeExecutor()).whenComplete((response, failure) -> {
+            if (failure == null) {
+                if (won.compareAndSet(null, request)) {
+                    winner.complete(response);
+                } else {
+                    freeConnectionQuietly(response);
+                }
+            } else if (outstanding.decrementAndGet() == 0) {
+                winner.completeExceptionally(failure);
+            }
         });
     }
 
-    // HELPERS
+    /**
+     * Record the latency of the send which was answered successfully, excluding earlier attempts and their backoff,
+     * so retries do not inflate the hedge delay.
+     */
+    private static void recordLatency(HedgePolicy hedgePolicy,
+                                      HttpResponse response,
+                                      long sentAt) {
+        if (response.getStatusLine().getStatusCode() < HttpStatus.SC_BAD_REQUEST) {
+            hedgePolicy.record(System.nanoTime() - sentAt);
+        }
+    }
+
+    private static HttpGet copyOf(HttpGet get) {
+        HttpGet copy = new HttpGet(get.getURI());
+        copy.setHeaders(get.getAllHeaders());
+        return copy;
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null ? e.getCause().getCause()
+                                                                                                        : e.getCause();
+
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+
+        return cause instanceof IOException ? (IOException) cause : new IOException(cause);
+    }
+
+    /**
+     * Execute a single attempt of a request through the region's circuit breaker, if any.
+     * @throws CircuitBreakerOpenException if requests to the region are paused.
+     */
+    private HttpResponse executeOnce(HttpUriRequest request,
+                                     AtomicLong sentAt) throws IOException {
+        CircuitBreaker circuitBreaker = options.getCircuitBreaker();
+
+        if (circuitBreaker == null) {
+            return executeLimited(request, sentAt);
+        }
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new CircuitBreakerOpenException(host);
+        }
+
+        boolean failed = true;
+        boolean sent = true;
+
+        try {
+            HttpResponse response = executeLimited(request, sentAt);
+
+            failed = response.getStatusLine().getStatusCode() >= HttpStatus.SC_INTERNAL_SERVER_ERROR;
+
+            return response;
+        } catch (LimiterTimeoutException e) {
+            sent = false;
+            throw e;
+        } finally {
+            if (failed && (!sent || isDeadlineExpired() || request.isAborted())) {
+                circuitBreaker.onIgnored(); // the build's failure, a request no longer needed or never sent, not the region's
+            } else if (failed) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+        }
+    }
+
+    /**
+     * Execute a single attempt of a request within the concurrency limit, if any.
+     */
+    private HttpResponse executeLimited(HttpUriRequest request,
+                                        AtomicLong sentAt) throws IOException {
+        AdaptiveLimiter limiter = options.getLimiter();
+
+        if (limiter == null) {
+            return executeTracked(request, sentAt);
+        }
+
+        try {
+            acquire(limiter, request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to send " + request.getMethod());
+        }
+
+        long start = System.nanoTime();
+        boolean overloaded = false;
+
+        try {
+            HttpResponse response = executeTracked(request, sentAt);
+
+            int statusCode = response.getStatusLine().getStatusCode();
+            overloaded = statusCode == HttpStatus.SC_TOO_MANY_REQUESTS || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE;
+
+            return response;
+        } catch (IOException e) {
+            // other failures, e.g. of parsing or cancellation, say nothing about the API's load
+            overloaded = isTimeout(e);
+            throw e;
+        } finally {
+            limiter.release(System.nanoTime() - start, overloaded && !request.isAborted());
+        }
+    }
+
+    /**
+     * Wait for the limiter, no longer than the limiter timeout nor the time remaining to the build.
+     * @throws DeadlineExceededException  if the build ran out of time first.
+     * @throws LimiterTimeoutException    if the limiter timeout elapsed first.
+     */
+    private void acquire(AdaptiveLimiter limiter,
+                         HttpUriRequest request) throws InterruptedException {
+        Deadline deadline = options.getDeadline();
+        long timeoutMillis = options.getLimiterTimeoutMillis();
+        boolean deadlineFirst = deadline != null && deadline.remainingMillis() < timeoutMillis;
+
+        if (deadlineFirst) {
+            timeoutMillis = deadline.remainingMillis();
+        }
+
+        if (limiter.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            return;
+        }
+
+        if (deadlineFirst) {
+            throw new DeadlineExceededException(request.getMethod(), request.getURI().getPath(), null);
+        }
+
+        throw new LimiterTimeoutException(request.getMethod(), request.getURI().getPath(), timeoutMillis, limiter.getKey());
+    }
+
+    /**
+     * @return whether the exception is a connect or read timeout, a sign of an overloaded API.
+     */
+    private static boolean isTimeout(IOException e) {
+        return e instanceof ConnectTimeoutException || e instanceof SocketTimeoutException;
+    }
+
+    /**
+     * Send a request through the transport, aborting it if the build's deadline is cancelled meanwhile.
+     */
+    private HttpResponse executeTracked(HttpUriRequest request,
+                                        AtomicLong sentAt) throws IOException {
+        Deadline deadline = options.getDeadline();
+
+        if (sentAt != null) {
+            sentAt.set(System.nanoTime());
+        }
+
+        if (deadline == null) {
+            return transport.execute(request);
+        }
+
+        deadline.register(request);
+
+        try {
+            return transport.execute(request);
+        } finally {
+            deadline.unregister(request);
+        }
+    }
+
+    private boolean isDeadlineExpired() {
+        return options.getDeadline() != null && options.getDeadline().isExpired();
+    }
+
+    /**
+     * @throws DeadlineExceededException if the build has run out of time, or was aborted.
+     */
+    private void checkDeadline(HttpUriRequest request,
+                               IOException cause) {
+        if (isDeadlineExpired()) {
+            throw new DeadlineExceededException(request.getMethod(), request.getURI().getPath(), cause);
+        }
+    }
+
+    /**
+     * Bound each attempt by the configured timeouts, capped to the time remaining to the build.
+     * The socket timeout bounds each read, so reading the response stays within the budget too.
+     */
+    private void applyTimeouts(HttpUriRequest request) {
+        if (!(request instanceof HttpRequestBase)) {
+            return;
+        }
+
+        ((HttpRequestBase) request).setConfig(RequestConfig.custom()
+                                                           .setConnectTimeout(capToDeadline(options.getConnectTimeoutMillis()))
+                                                           .setSocketTimeout(capToDeadline(options.getSocketTimeoutMillis()))
+                                                           .setConnectionRequestTimeout(capToDeadline(options.getConnectionRequestTimeoutMillis()))
+                                                           .build());
+    }
+
+    private int capToDeadline(int timeoutMillis) {
+        return options.getDeadline() == null ? timeoutMillis : options.getDeadline().cap(timeoutMillis);
+    }
+
+    private void backoff(HttpUriRequest request,
+                         int attempt,
+                         long delayMillis,
+                         String failure) throws IOException {
+        if (options.getDeadline() != null && options.getDeadline().remainingMillis() <= delayMillis) {
+            // the retry could not be sent in time
+            throw new DeadlineExceededException(request.getMethod(), request.getURI().getPath(), null);
+        }
+
+        options.getMetrics().recordRetry();
+
+        if (options.getLogger() != null) {
+            options.getLogger().log("%s %s failed with [%s], retrying in %s ms (attempt %s of %s)",
+                                    request.getMethod(),
+                                    request.getURI().getPath(),
+                                    failure,
+                                    delayMillis,
+                                    attempt + 1,
+                                    options.getRetryPolicy().getMaxAttempts());
+        }
+
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry " + request.getMethod());
+        }
+    }
 
     private void freeConnectionForReuse(HttpResponse response) {
         if(response != null) {
@@ -216,24 +867,81 @@ public abstract class AbstractApi {
         }
     }
 
+    private void freeConnectionQuietly(HttpResponse response) {
+        try {
+            freeConnectionForReuse(response);
+        } catch (APIException e) {
+            // the response is not needed
+        }
+    }
+
+    /**
+     * Map the response content directly from the entity stream, rather than buffering it as a string first.
+     * The encoding is detected from the content itself.
+     */
+    private <T> T readContent(HttpResponse response,
+                              ObjectReader reader) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER_INSTANCE.getFactory().createParser(response.getEntity().getContent())) {
+            return reader.readValue(parser);
+        }
+    }
+
+    /**
+     * Map a page from the entity stream, recording its size and retrieval time to the page size.
+     * @param sentAt When the successful attempt was sent, so failed attempts, backoff and limiter waits are not counted.
+     */
+    private <T> Page<T> readPage(HttpResponse response,
+                                 Class<T> clazz,
+                                 PageSize pageSize,
+                                 long sentAt) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER_INSTANCE.getFactory().createParser(response.getEntity().getContent())) {
+            Page<T> page = pageReaderFor(clazz).readValue(parser);
+
+            pageSize.record(page.getData() == null ? 0 : page.getData().size(),
+                            parser.currentLocation().getByteOffset(),
+                            System.nanoTime() - sentAt);
+
+            return page;
+        }
+    }
+
+    private static ObjectReader readerFor(Class<?> clazz) {
+        return READERS.computeIfAbsent(clazz, OBJECT_MAPPER_INSTANCE::readerFor);
+    }
+
+    private static ObjectReader pageReaderFor(Class<?> clazz) {
+        return PAGE_READERS.computeIfAbsent(clazz, c -> OBJECT_MAPPER_INSTANCE.readerFor(OBJECT_MAPPER_INSTANCE.getTypeFactory()
+                                                                                                             .constructParametricType(Page.class, c)));
+    }
+
     private URI buildUri(String path) {
         return buildUri(path, new HashMap<>());
     }
 
     private URI buildUriWithIndex(String path,
-                                  int index) {
+                                  int index,
+                                  int size) {
         Map<String, String> params = new HashMap<>();
 
         params.put("index", String.valueOf(index));
-        params.put("size", "1000"); // use max size for faster data retrieval
+        params.put("size", String.valueOf(size));
 
         return buildUri(path, params);
     }
 
+    /**
+     * @return the adaptive page size of the class when enabled, otherwise the max size for faster data retrieval.
+     */
+    private PageSize pageSizeFor(Class<?> clazz) {
+        PageSizes pageSizes = options.getPageSizes();
+
+        return pageSizes == null ? PageSize.LARGEST : pageSizes.get(clazz);
+    }
+
     private URI buildUri(String path,
                          Map<String, String> params) {
         try {
-            URIBuilder builder = new URIBuilder(format("https://%s/ias/v1%s", host, path));
+            URIBuilder builder = new URIBuilder(getBaseUrl() + path);
             params.forEach(builder::addParameter);
 
             return builder.build();
@@ -253,6 +961,20 @@ public abstract class AbstractApi {
         return post;
     }
 
+    /**
+     * Create a POST of a read only query, compressing its body when larger than the configured threshold.
+     */
+    private HttpPost createSearchPost(URI uri,
+                                      Object body) {
+        HttpPost post = new HttpPost(uri);
+
+        addApiKey(post);
+        addUserAgent(post);
+        addBody(post, body, options.getRequestCompressionThreshold());
+
+        return post;
+    }
+
     private HttpPut createPut(URI uri,
                               Object body) {
         HttpPut put = new HttpPut(uri);
@@ -279,14 +1001,43 @@ public abstract class AbstractApi {
 
     private void addBody(HttpEntityEnclosingRequestBase request,
                          Object body) {
+        addBody(request, body, 0);
+    }
+
+    /**
+     * @param compressionThreshold The size in bytes above which the body is sent gzip encoded, 0 to never compress.
+     */
+    private void addBody(HttpEntityEnclosingRequestBase request,
+                         Object body,
+                         int compressionThreshold) {
         try {
-            String json = OBJECT_MAPPER_INSTANCE.writeValueAsString(body);
-            request.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+            byte[] json = OBJECT_MAPPER_INSTANCE.writeValueAsBytes(body);
+
+            if (compressionThreshold > 0 && json.length > compressionThreshold) {
+                // compressed up front, rather than streamed, so retries resend the same bytes with a known length
+                ByteArrayEntity entity = new ByteArrayEntity(gzip(json), ContentType.APPLICATION_JSON);
+                entity.setContentEncoding("gzip");
+                request.setEntity(entity);
+            } else {
+                request.setEntity(new ByteArrayEntity(json, ContentType.APPLICATION_JSON));
+            }
         } catch (JsonProcessingException e) {
             throw new APIException("Error occurred writing body as json", e);
         }
     }
 
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new APIException("Error occurred compressing body", e);
+        }
+
+        return compressed.toByteArray();
+    }
+
     private void addUserAgent(AbstractHttpMessage request) {
         request.addHeader(USER_AGENT_HEADER, USER_AGENT_HEADER_VALUE);
     }
@@ -297,8 +1048,7 @@ public abstract class AbstractApi {
      * @return all pages of mapped resources, as a list.
      */
     private <T> List<T> retrieveAll(Function<Integer, Page<T>> getPageByIndex) {
-        int index = 0;
-        Page<T> page = getPageByIndex.apply(index);
+        Page<T> page = getPageByIndex.apply(0);
         int totalPages = page.getMetadata().getTotalPages();
 
         // handle eager return
@@ -306,36 +1056,122 @@ public abstract class AbstractApi {
             return new ArrayList<>();
         }
 
-        // iterate and collect
+        // collect remaining pages, in index order
         List<T> all = new ArrayList<>(page.getData());
-        index++;
-        while(index < totalPages) {
-            all.addAll(getPageByIndex.apply(index).getData());
-            index++;
-        }
+        retrievePages(getPageByIndex, 1, totalPages).forEach(all::addAll);
 
         return all;
     }
 
+    /**
+     * Retrieve a range of pages, concurrently when permitted by the options.
+     * @param getPageByIndex The function to provide a page
+     * @param fromIndex      The first page index, inclusive.
+     * @param toIndex        The last page index, exclusive.
+     * @return the data of each page, in index order.
+     */
+    private <T> List<List<T>> retrievePages(Function<Integer, Page<T>> getPageByIndex,
+                                            int fromIndex,
+                                            int toIndex) {
+        int pageCount = toIndex - fromIndex;
+        int workers = Math.min(options.getPageConcurrency(), pageCount);
+
+        // iterate and collect
+        if (workers <= 1) {
+            List<List<T>> pages = new ArrayList<>(Math.max(pageCount, 0));
+            for (int index = fromIndex; index < toIndex; index++) {
+                pages.add(getPageByIndex.apply(index).getData());
+            }
+            return pages;
+        }
+
+        // each worker claims the next unretrieved index until all are claimed or one fails
+        AtomicReferenceArray<List<T>> pages = new AtomicReferenceArray<>(pageCount);
+        AtomicInteger nextIndex = new AtomicInteger(fromIndex);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        Runnable worker = () -> {
+            int index;
+            while (failure.get() == null && (index = nextIndex.getAndIncrement()) < toIndex) {
+                try {
+                    pages.set(index - fromIndex, getPageByIndex.apply(index).getData());
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        };
+
+        CompletableFuture.allOf(IntStream.range(0, workers)
+                                         .mapToObj(w -> CompletableFuture.runAsync(worker, options.getPageExecutor()))
+                                         .toArray(CompletableFuture[]::new))
+                         .join();
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        List<List<T>> ordered = new ArrayList<>(pageCount);
+        for (int i = 0; i < pageCount; i++) {
+            ordered.add(pages.get(i));
+        }
+        return ordered;
+    }
+
+    /**
+     * Stream all pages of a particular resource, retrieving each page on demand.
+     * @param getPageByIndex The function to provide a page
+     * @return all pages of mapped resources, as a lazy stream.
+     */
+    private <T> Stream<T> streamAll(Function<Integer, Page<T>> getPageByIndex) {
+        Iterator<T> iterator = new Iterator<T>() {
+
+            private int nextIndex = 0;
+            private int totalPages = 1; // unknown until the first page has been retrieved
+            private Iterator<T> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && nextIndex < totalPages) {
+                    // replacing the exhausted page releases it for collection
+                    Page<T> page = getPageByIndex.apply(nextIndex++);
+                    totalPages = page.getMetadata().getTotalPages();
+                    current = page.getData() == null ? Collections.emptyIterator() : page.getData().iterator();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+
     /**
      * Retrieve a page of a particular resource.
      * @param clazz     The class to map the page data to.
      * @param request   The request to invoke that will return a page.
+     * @param pageSize  The page size to record the retrieved page to.
      * @return the page of mapped resources.
      */
     private <T> Page<T> retrievePage(Class<T> clazz,
-                                     HttpUriRequest request) {
+                                     HttpUriRequest request,
+                                     PageSize pageSize) {
         HttpResponse response = null;
 
         try {
-            response = client.execute(request);
+            AtomicLong sentAt = new AtomicLong();
 
-            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                String content = IOUtils.toString(response.getEntity().getContent());
+            // page retrieval is read only, including search POSTs
+            response = execute(request, true, sentAt);
 
-                JavaType type = OBJECT_MAPPER_INSTANCE.getTypeFactory().constructParametricType(Page.class, clazz);
-
-                return OBJECT_MAPPER_INSTANCE.readValue(content, type);
+            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
+                return readPage(response, clazz, pageSize, sentAt.get());
             } else {
                 throw new APIException(format("Error occurred during retrieval of page of [%s]. Expected status code [%s]. Response was: %n %s",
                                                clazz.getSimpleName(),
@@ -0,0 +1,138 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps the number of concurrent requests sent with one API key to one region, adapting the cap to observed conditions.
+ * The limit grows additively while latency stays flat and shrinks multiplicatively on overload responses
+ * or latency spikes (AIMD). Callers beyond the limit wait for a request to complete.
+ */
+public class AdaptiveLimiter {
+
+    static final int INITIAL_LIMIT = 8;
+    static final int MIN_LIMIT = 1;
+    static final int MAX_LIMIT = 64;
+
+    public static final long DEFAULT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    private static final double OVERLOAD_DECREASE = 0.5;
+    private static final double LATENCY_DECREASE = 0.8;
+    private static final double LATENCY_TOLERANCE = 2.0; // a sample above twice the average latency is a spike
+    private static final double LATENCY_SMOOTHING = 0.05;
+    private static final int WARM_UP_SAMPLES = 10;
+
+    private final String key;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    private double limit = INITIAL_LIMIT;
+    private int inFlight;
+    private int queued;
+
+    private double averageLatencyNanos;
+    private long samples;
+
+    public AdaptiveLimiter(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Wait up to the timeout until a request may be sent. Each successful acquire must be followed by a {@link #release}.
+     * @return whether the request may be sent, false if the timeout elapsed first.
+     */
+    public boolean tryAcquire(long timeout,
+                              TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+
+        lock.lock();
+        try {
+            queued++;
+            try {
+                while (inFlight >= getLimit()) {
+                    if (remainingNanos <= 0) {
+                        return false;
+                    }
+                    remainingNanos = available.awaitNanos(remainingNanos);
+                }
+            } finally {
+                queued--;
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param latencyNanos the time taken by the completed request.
+     * @param overloaded   whether the API indicated it is overloaded, e.g. with a 429, or the request timed out.
+     */
+    public void release(long latencyNanos,
+                        boolean overloaded) {
+        lock.lock();
+        try {
+            inFlight--;
+
+            if (overloaded) {
+                limit = Math.max(MIN_LIMIT, limit * OVERLOAD_DECREASE);
+            } else if (samples >= WARM_UP_SAMPLES && latencyNanos > averageLatencyNanos * LATENCY_TOLERANCE) {
+                limit = Math.max(MIN_LIMIT, limit * LATENCY_DECREASE);
+            } else {
+                // roughly +1 once a full limit's worth of requests has succeeded
+                limit = Math.min(MAX_LIMIT, limit + 1 / limit);
+            }
+
+            if (!overloaded) {
+                averageLatencyNanos = samples == 0 ? latencyNanos
+                                                   : averageLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - averageLatencyNanos);
+                samples++;
+            }
+
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the current max number of concurrent requests.
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of requests waiting for the limit.
+     */
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
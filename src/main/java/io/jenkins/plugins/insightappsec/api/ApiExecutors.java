@@ -0,0 +1,57 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ApiExecutors {
+
+    private static final int ASYNC_THREADS = 8;
+    private static final int POLLING_THREADS = 8;
+
+    public static final ExecutorService PAGE_RETRIEVAL = Executors.newCachedThreadPool(daemonThreadFactory("InsightAppSec page retrieval"));
+
+    /**
+     * Sends both requests of a hedged GET, so the caller can take whichever is answered first.
+     */
+    public static final ExecutorService HEDGED_REQUESTS = Executors.newCachedThreadPool(daemonThreadFactory("InsightAppSec hedged request"));
+
+    /**
+     * Runs the blocking API work of pipeline steps for all builds, off the pipeline's own thread: pre-flight checks,
+     * submission, result collection and cancellation, as well as reaping orphaned scans. Each operation holds a thread
+     * for its duration, so excess operations queue.
+     */
+    public static final ExecutorService ASYNC = boundedExecutor(ASYNC_THREADS, daemonThreadFactory("InsightAppSec API"));
+
+    /**
+     * Polls the status of scans for all builds. Kept apart from {@link #ASYNC}, so submissions, cancellations and
+     * result collection which are slow or backing off never hold up polling.
+     */
+    public static final ExecutorService POLLING = boundedExecutor(POLLING_THREADS, daemonThreadFactory("InsightAppSec scan status"));
+
+    private static ExecutorService boundedExecutor(int threads,
+                                                   ThreadFactory threadFactory) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                                                             60L, TimeUnit.SECONDS,
+                                                             new LinkedBlockingQueue<>(),
+                                                             threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    public static ThreadFactory daemonThreadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, String.format("%s #%s", name, count.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
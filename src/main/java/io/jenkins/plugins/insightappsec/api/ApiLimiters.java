@@ -0,0 +1,33 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Controller-wide registry of {@link AdaptiveLimiter}s, one per credential and region.
+ */
+public class ApiLimiters {
+
+    public static final ApiLimiters GLOBAL = new ApiLimiters();
+
+    private final Map<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveLimiter get(String region,
+                               String insightCredentialsId) {
+        return limiters.computeIfAbsent(region + "/" + insightCredentialsId, AdaptiveLimiter::new);
+    }
+
+    /**
+     * @return all limiters created so far, ordered by key.
+     */
+    public List<AdaptiveLimiter> getAll() {
+        List<AdaptiveLimiter> all = new ArrayList<>(limiters.values());
+        all.sort(Comparator.comparing(AdaptiveLimiter::getKey));
+
+        return all;
+    }
+
+}
@@ -0,0 +1,122 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the API traffic of the plugin, controller-wide unless a separate instance is supplied.
+ */
+public class ApiMetrics {
+
+    public static final ApiMetrics GLOBAL = new ApiMetrics();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder retriesExhausted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    public void recordRequest() {
+        requests.increment();
+    }
+
+    public void recordRetry() {
+        retries.increment();
+    }
+
+    public void recordRetriesExhausted() {
+        retriesExhausted.increment();
+    }
+
+    public void recordCoalesced() {
+        coalesced.increment();
+    }
+
+    public void recordCacheHit() {
+        cacheHits.increment();
+    }
+
+    public void recordCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    public void recordHedge() {
+        hedges.increment();
+    }
+
+    public void recordHedgeWin() {
+        hedgeWins.increment();
+    }
+
+    /**
+     * @return the number of HTTP requests sent, including retries.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * @return the number of requests which still failed transiently after their last attempt.
+     */
+    public long getRetriesExhausted() {
+        return retriesExhausted.sum();
+    }
+
+    /**
+     * @return the number of GETs served by an identical in-flight or just completed call.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return the number of cached GETs served from the cache, as the resource was not modified or its body was unchanged.
+     */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * @return the percentage of cached GETs served from the cache.
+     */
+    public long getCacheHitRatio() {
+        long hits = getCacheHits();
+        long total = hits + getCacheMisses();
+
+        return total == 0 ? 0 : hits * 100 / total;
+    }
+
+    /**
+     * @return the number of slow GETs which were sent a second time.
+     */
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * @return the number of hedged GETs answered first by the second request.
+     */
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * @return the percentage of hedged GETs answered first by the second request.
+     */
+    public long getHedgeWinRatio() {
+        long total = getHedges();
+
+        return total == 0 ? 0 : getHedgeWins() * 100 / total;
+    }
+
+}
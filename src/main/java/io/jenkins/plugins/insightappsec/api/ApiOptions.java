@@ -0,0 +1,126 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import io.jenkins.plugins.insightappsec.InsightAppSecLogger;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Controller-wide tuning applied to each API instance created by the {@link APIFactory}.
+ */
+@Data
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ApiOptions {
+
+    public static final ApiOptions DEFAULT = ApiOptions.builder().build();
+
+    /**
+     * The base URL of the API, e.g. of a local stand-in, null for the region's.
+     */
+    private String baseUrl;
+
+    /**
+     * The executor used to retrieve pages concurrently.
+     */
+    @Builder.Default
+    private Executor pageExecutor = ApiExecutors.PAGE_RETRIEVAL;
+
+    /**
+     * The max number of pages of a single collection retrieved at once. 1 retrieves pages sequentially.
+     */
+    @Builder.Default
+    private int pageConcurrency = 1;
+
+    /**
+     * Adapts the page size of each type of item to its observed size, null to always request the max page size.
+     */
+    private PageSizes pageSizes;
+
+    /**
+     * The size in bytes above which search request bodies are sent gzip encoded, 0 to never compress.
+     */
+    @Builder.Default
+    private int requestCompressionThreshold = 0;
+
+
+    /**
+     * The policy for retrying idempotent requests which failed transiently.
+     */
+    @Builder.Default
+    private RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
+
+    /**
+     * The max millis to establish a connection, 0 for no limit.
+     */
+    @Builder.Default
+    private int connectTimeoutMillis = HttpClientRegistry.DEFAULT_CONNECT_TIMEOUT_MILLIS;
+
+    /**
+     * The max millis to wait for data once connected, 0 for no limit.
+     */
+    @Builder.Default
+    private int socketTimeoutMillis = HttpClientRegistry.DEFAULT_SOCKET_TIMEOUT_MILLIS;
+
+    /**
+     * The max millis to wait for a connection from the pool, 0 for no limit.
+     */
+    @Builder.Default
+    private int connectionRequestTimeoutMillis = HttpClientRegistry.DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLIS;
+
+    /**
+     * The deadline of the build each request is bounded by, null outside of a build.
+     */
+    private Deadline deadline;
+
+    /**
+     * The metrics to record API traffic to.
+     */
+    @Builder.Default
+    private ApiMetrics metrics = ApiMetrics.GLOBAL;
+
+    /**
+     * The limiter shared by all requests with the same credential and region, null for no limit.
+     */
+    private AdaptiveLimiter limiter;
+
+    /**
+     * The max millis to wait for the limiter before giving up on a request, further capped by the deadline.
+     */
+    @Builder.Default
+    private long limiterTimeoutMillis = AdaptiveLimiter.DEFAULT_TIMEOUT_MILLIS;
+
+    /**
+     * The circuit breaker of the region, null for none.
+     */
+    private CircuitBreaker circuitBreaker;
+
+    /**
+     * Coalesces identical GETs by id, null to send each one.
+     */
+    private SingleFlight singleFlight;
+
+    /**
+     * Caches GETs by id for revalidation with conditional requests, null to always fetch and map the full response.
+     */
+    private ResponseCache responseCache;
+
+    /**
+     * Hedges GETs by id which are slow to be answered, null to wait for each one.
+     */
+    private HedgePolicy hedgePolicy;
+
+    /**
+     * The executor used to send the requests of hedged GETs.
+     */
+    @Builder.Default
+    private Executor hedgeExecutor = ApiExecutors.HEDGED_REQUESTS;
+
+    /**
+     * The build log to report retries to, null outside of a build.
+     */
+    private InsightAppSecLogger logger;
+
+}
@@ -0,0 +1,25 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+
+import java.io.IOException;
+
+/**
+ * Sends a single API request. Retries, limits and circuit breaking are applied by the API around the transport,
+ * so an implementation only has to deliver the request, e.g. through a pooled client or to an in-process stand-in.
+ */
+@FunctionalInterface
+public interface ApiTransport {
+
+    /**
+     * @return the response, whose entity the caller consumes.
+     */
+    HttpResponse execute(HttpUriRequest request) throws IOException;
+
+    static ApiTransport of(HttpClient client) {
+        return client::execute;
+    }
+
+}
@@ -0,0 +1,183 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stops sending requests to a region once most recent requests to it have failed.
+ * After the open duration a single probe request is let through (half-open), closing the breaker again if it succeeds.
+ */
+public class CircuitBreaker {
+
+    private static final Logger LOGGER = Logger.getLogger(CircuitBreaker.class.getName());
+
+    static final int WINDOW_SIZE = 20;
+    static final int MIN_CALLS = 10;
+    static final long OPEN_DURATION_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    public enum State {
+
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+
+    }
+
+    private final String name;
+    private final LongSupplier clock;
+
+    private volatile int failureRateThreshold;
+
+    // outcomes of the most recent calls, true for failure
+    private final boolean[] window = new boolean[WINDOW_SIZE];
+    private int windowIndex;
+    private int calls;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openUntil;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String name,
+                          int failureRateThreshold) {
+        this(name, failureRateThreshold, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(String name,
+                   int failureRateThreshold,
+                   LongSupplier clock) {
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.clock = clock;
+    }
+
+    /**
+     * @return true if a request may be sent. Each permitted request must be followed by {@link #onSuccess} or {@link #onFailure}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        switch (state) {
+            case OPEN:
+                if (clock.getAsLong() < openUntil) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+                probeInFlight = true;
+                return true;
+            case HALF_OPEN:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+            case CLOSED:
+            default:
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            reset();
+            transitionTo(State.CLOSED);
+            return;
+        }
+
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            open();
+            return;
+        }
+
+        record(true);
+
+        if (state == State.CLOSED && calls >= MIN_CALLS && getFailureRate() >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * The permitted request ended without telling anything about the region, e.g. the build ran out of time.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false; // let the next request probe instead
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return the percentage of failed calls within the window.
+     */
+    public synchronized int getFailureRate() {
+        return calls == 0 ? 0 : failures * 100 / calls;
+    }
+
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(int failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    /**
+     * @return the remaining time until a probe request will be permitted, 0 unless open.
+     */
+    public synchronized long getRemainingOpenMillis() {
+        return state == State.OPEN ? Math.max(openUntil - clock.getAsLong(), 0) : 0;
+    }
+
+    // HELPERS
+
+    private void record(boolean failure) {
+        if (calls == WINDOW_SIZE) {
+            if (window[windowIndex]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+
+        window[windowIndex] = failure;
+        windowIndex = (windowIndex + 1) % WINDOW_SIZE;
+
+        if (failure) {
+            failures++;
+        }
+    }
+
+    private void reset() {
+        windowIndex = 0;
+        calls = 0;
+        failures = 0;
+    }
+
+    private void open() {
+        openUntil = clock.getAsLong() + OPEN_DURATION_MILLIS;
+        transitionTo(State.OPEN);
+    }
+
+    private void transitionTo(State next) {
+        if (state != next) {
+            LOGGER.log(next == State.OPEN ? Level.WARNING : Level.INFO,
+                       "Circuit breaker for {0} changed from {1} to {2}",
+                       new Object[]{name, state, next});
+            state = next;
+        }
+    }
+
+}
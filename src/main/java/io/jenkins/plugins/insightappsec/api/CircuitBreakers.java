@@ -0,0 +1,51 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import io.jenkins.plugins.insightappsec.Region;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Controller-wide registry of {@link CircuitBreaker}s, one per region.
+ */
+public class CircuitBreakers {
+
+    public static final int DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+
+    public static final CircuitBreakers GLOBAL = new CircuitBreakers();
+
+    private final Map<Region, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private volatile int failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+
+    public CircuitBreaker get(Region region) {
+        return breakers.computeIfAbsent(region, r -> new CircuitBreaker(r.getAPIHost(), failureRateThreshold));
+    }
+
+    /**
+     * @return all breakers created so far, in region order.
+     */
+    public List<CircuitBreaker> getAll() {
+        List<CircuitBreaker> all = new ArrayList<>();
+
+        for (Region region : Region.values()) {
+            CircuitBreaker breaker = breakers.get(region);
+            if (breaker != null) {
+                all.add(breaker);
+            }
+        }
+
+        return all;
+    }
+
+    /**
+     * Apply a failure rate threshold, as a percentage, to existing and future breakers.
+     */
+    public void setFailureRateThreshold(int failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+        breakers.values().forEach(breaker -> breaker.setFailureRateThreshold(failureRateThreshold));
+    }
+
+}
@@ -0,0 +1,114 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import org.apache.http.client.methods.HttpUriRequest;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time remaining to a build for its API calls. Each request is refused once the deadline has passed,
+ * and its timeouts are capped to the time remaining, so no request outlives the build's budget.
+ * Cancelling the deadline, e.g. when the build is aborted, also aborts the requests in flight.
+ */
+public class Deadline {
+
+    private final long deadlineNanos;
+    private final boolean bounded;
+
+    private final Set<HttpUriRequest> inFlight = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean cancelled;
+
+    private Deadline(long deadlineNanos,
+                     boolean bounded) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * @return a deadline passing after the duration, from now.
+     */
+    public static Deadline after(long duration,
+                                 TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(duration), true);
+    }
+
+    /**
+     * @return a deadline which only passes once cancelled.
+     */
+    public static Deadline unbounded() {
+        return new Deadline(0, false);
+    }
+
+    /**
+     * @return whether the deadline has passed or has been cancelled.
+     */
+    public boolean isExpired() {
+        return cancelled || (bounded && deadlineNanos - System.nanoTime() <= 0);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    /**
+     * @return the millis remaining, 0 once expired, {@link Long#MAX_VALUE} when unbounded.
+     */
+    public long remainingMillis() {
+        if (cancelled) {
+            return 0;
+        }
+
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * @param timeoutMillis A configured timeout, 0 for none.
+     * @return the timeout capped to the millis remaining, at least 1 as 0 disables an HTTP timeout.
+     */
+    public int cap(int timeoutMillis) {
+        long remaining = remainingMillis();
+
+        if (remaining == Long.MAX_VALUE) {
+            return timeoutMillis;
+        }
+
+        long capped = timeoutMillis <= 0 ? remaining : Math.min(timeoutMillis, remaining);
+
+        return (int) Math.max(1, Math.min(capped, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Expire the deadline now and abort the requests in flight.
+     */
+    public void cancel() {
+        cancelled = true;
+
+        inFlight.forEach(HttpUriRequest::abort);
+    }
+
+    /**
+     * Track a request being sent, so cancelling aborts it.
+     */
+    void register(HttpUriRequest request) {
+        inFlight.add(request);
+
+        if (cancelled) { // cancelled while registering
+            request.abort();
+        }
+    }
+
+    void unregister(HttpUriRequest request) {
+        inFlight.remove(request);
+    }
+
+}
@@ -0,0 +1,83 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when a GET by id which has not been answered yet is sent a second time (hedged):
+ * once it has taken longer than the 95th percentile of recently observed latencies.
+ * Hedges are capped to a share of the requests, so a slow API is never flooded with duplicates.
+ */
+public class HedgePolicy {
+
+    public static final int DEFAULT_MAX_HEDGE_PERCENT = 10;
+
+    public static final HedgePolicy GLOBAL = new HedgePolicy(DEFAULT_MAX_HEDGE_PERCENT);
+
+    static final int SAMPLE_SIZE = 128;
+    static final int MIN_SAMPLES = 20;
+    static final long MIN_DELAY_MILLIS = 50;
+
+    private static final double PERCENTILE = 0.95;
+    private static final double MAX_BURST = 5; // hedges allowed back to back after a quiet period
+
+    private final long[] latencies = new long[SAMPLE_SIZE]; // the most recent, in nanos
+    private int sampleCount;
+    private int nextSample;
+
+    private final int maxHedgePercent;
+    private double budget;
+
+    public HedgePolicy(int maxHedgePercent) {
+        this.maxHedgePercent = maxHedgePercent;
+    }
+
+    /**
+     * @param latencyNanos the time taken by a GET which was answered.
+     */
+    public synchronized void record(long latencyNanos) {
+        latencies[nextSample] = latencyNanos;
+        nextSample = (nextSample + 1) % SAMPLE_SIZE;
+        sampleCount = Math.min(sampleCount + 1, SAMPLE_SIZE);
+    }
+
+    /**
+     * @return the millis to wait for an answer before hedging, -1 while too few latencies have been observed.
+     */
+    public synchronized long getDelayMillis() {
+        if (sampleCount < MIN_SAMPLES) {
+            return -1;
+        }
+
+        long[] sorted = Arrays.copyOf(latencies, sampleCount);
+        Arrays.sort(sorted);
+
+        long percentile = sorted[(int) Math.ceil(PERCENTILE * sampleCount) - 1];
+
+        return Math.max(MIN_DELAY_MILLIS, TimeUnit.NANOSECONDS.toMillis(percentile));
+    }
+
+    /**
+     * Count a GET towards the hedge budget, each one earning a share of a hedge.
+     */
+    public synchronized void onRequest() {
+        budget = Math.min(MAX_BURST, budget + maxHedgePercent / 100.0);
+    }
+
+    /**
+     * @return whether a GET may be hedged now, spending the budget if so.
+     */
+    public synchronized boolean tryAcquireHedge() {
+        if (budget < 1) {
+            return false;
+        }
+
+        budget--;
+        return true;
+    }
+
+    public int getMaxHedgePercent() {
+        return maxHedgePercent;
+    }
+
+}
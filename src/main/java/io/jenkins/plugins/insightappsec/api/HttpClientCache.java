@@ -1,20 +1,42 @@
 package io.jenkins.plugins.insightappsec.api;
 
-import org.apache.http.client.HttpClient;
-import org.apache.http.impl.NoConnectionReuseStrategy;
-import org.apache.http.impl.client.HttpClientBuilder;
-
+/**
+ * The controller-wide HTTP clients of the plugin. Nothing is created until the first request,
+ * so the proxy is read once Jenkins is up, and again whenever the clients are reloaded.
+ */
 public class HttpClientCache {
 
-    public static final HttpClient SEARCH_API_HTTP_CLIENT = defaultHttpClient();
-    public static final HttpClient APP_API_HTTP_CLIENT = defaultHttpClient();
-    public static final HttpClient SCAN_API_HTTP_CLIENT = defaultHttpClient();
+    public static final int DEFAULT_MAX_CONNECTIONS = HttpClientRegistry.DEFAULT_MAX_CONNECTIONS;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = HttpClientRegistry.DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+
+    private static final HttpClientRegistry REGISTRY = new HttpClientRegistry(ProxyUtil::configureProxy);
+
+    public static final ApiTransport SEARCH_API_TRANSPORT = REGISTRY.transport("search");
+    public static final ApiTransport APP_API_TRANSPORT = REGISTRY.transport("app");
+    public static final ApiTransport SCAN_API_TRANSPORT = REGISTRY.transport("scan");
+
+    /**
+     * Resize the connection pool shared by all clients. Safe to call while requests are in flight.
+     * @param maxConnections            The max number of pooled connections across all routes.
+     * @param maxConnectionsPerRoute    The max number of pooled connections to a single host.
+     */
+    public static void configurePool(int maxConnections,
+                                     int maxConnectionsPerRoute) {
+        REGISTRY.configurePool(maxConnections, maxConnectionsPerRoute);
+    }
+
+    /**
+     * Rebuild the clients with the current proxy configuration on their next request.
+     */
+    public static void reload() {
+        REGISTRY.reload();
+    }
 
-    private static HttpClient defaultHttpClient() {
-        HttpClientBuilder builder = HttpClientBuilder.create();
-        ProxyUtil.configureProxy(builder);
-        builder.setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE);
-        return builder.build();
+    /**
+     * Close the clients and their pooled connections. A later request opens a new pool.
+     */
+    public static void shutdown() {
+        REGISTRY.close();
     }
 
 }
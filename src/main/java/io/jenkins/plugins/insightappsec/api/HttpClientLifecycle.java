@@ -0,0 +1,33 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import hudson.Extension;
+import hudson.ProxyConfiguration;
+import hudson.XmlFile;
+import hudson.init.Terminator;
+import hudson.model.Saveable;
+import hudson.model.listeners.SaveableListener;
+
+/**
+ * Ties the HTTP clients to the lifecycle of Jenkins: rebuilt when the proxy configuration is saved, closed on shutdown.
+ */
+public class HttpClientLifecycle {
+
+    @Terminator
+    public static void shutdown() {
+        HttpClientCache.shutdown();
+    }
+
+    @Extension
+    public static class ProxyConfigurationListener extends SaveableListener {
+
+        @Override
+        public void onChange(Saveable o,
+                             XmlFile file) {
+            if (o instanceof ProxyConfiguration) {
+                HttpClientCache.reload();
+            }
+        }
+
+    }
+
+}
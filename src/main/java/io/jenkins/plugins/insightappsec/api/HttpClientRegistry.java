@@ -0,0 +1,237 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.DeflateInputStreamFactory;
+import org.apache.http.client.entity.GZIPInputStreamFactory;
+import org.apache.http.client.entity.InputStreamFactory;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.IdleConnectionEvictor;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Owns the pooled HTTP clients of the plugin: a connection pool shared by named clients, created on first use.
+ * Clients are rebuilt on {@link #reload()}, e.g. after a proxy change, while the pool and its connections are kept.
+ * Idle and expired connections are evicted in the background, and everything is released on {@link #close()},
+ * after which the next request starts over with a new pool.
+ */
+public class HttpClientRegistry implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(HttpClientRegistry.class.getName());
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 50;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+
+    public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(10);
+    public static final int DEFAULT_SOCKET_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(60);
+    public static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(30);
+
+    static final long EVICTION_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    static final long MAX_IDLE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final long DEFAULT_KEEP_ALIVE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final int VALIDATE_AFTER_INACTIVITY_MILLIS = (int) TimeUnit.SECONDS.toMillis(5);
+
+    private final Consumer<HttpClientBuilder> configurer;
+
+    private volatile int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private volatile int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+
+    // guarded by this
+    private PoolingHttpClientConnectionManager connectionManager;
+    private IdleConnectionEvictor evictor;
+
+    private volatile Map<String, CloseableHttpClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * @param configurer applies settings read on each (re)build to the builder of each client, e.g. the proxy.
+     */
+    public HttpClientRegistry(Consumer<HttpClientBuilder> configurer) {
+        this.configurer = configurer;
+    }
+
+    /**
+     * @return a transport sending requests through the current client of the name, so it follows reloads.
+     */
+    public ApiTransport transport(String name) {
+        return request -> client(name).execute(request);
+    }
+
+    /**
+     * @return the current client of the name, built on first use, along with the pool if it is not running.
+     */
+    public CloseableHttpClient client(String name) {
+        CloseableHttpClient client = clients.get(name);
+
+        if (client != null) {
+            return client;
+        }
+
+        synchronized (this) {
+            return clients.computeIfAbsent(name, n -> buildClient(connectionManager()));
+        }
+    }
+
+    /**
+     * Resize the connection pool shared by all clients. Safe to call while requests are in flight.
+     * @param maxConnections            The max number of pooled connections across all routes.
+     * @param maxConnectionsPerRoute    The max number of pooled connections to a single host.
+     */
+    public synchronized void configurePool(int maxConnections,
+                                           int maxConnectionsPerRoute) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerRoute = Math.min(maxConnectionsPerRoute, maxConnections);
+
+        if (connectionManager != null) {
+            connectionManager.setMaxTotal(this.maxConnections);
+            connectionManager.setDefaultMaxPerRoute(this.maxConnectionsPerRoute);
+        }
+    }
+
+    /**
+     * Replace all clients, so the next request of each builds a client with the current settings.
+     * The replaced clients are closed straight away, which is safe for requests still in flight on them: the clients
+     * share the pool rather than own it, so closing one releases none of the connections it leased.
+     */
+    public void reload() {
+        Map<String, CloseableHttpClient> replaced;
+
+        synchronized (this) {
+            replaced = clients;
+            clients = new ConcurrentHashMap<>();
+        }
+
+        closeAll(replaced);
+    }
+
+    /**
+     * @return the number of clients built and not yet replaced.
+     */
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * @return whether the pool has been created, i.e. a client has been used.
+     */
+    public synchronized boolean isStarted() {
+        return connectionManager != null;
+    }
+
+    /**
+     * Close all clients, stop evicting and close all pooled connections, failing the requests in flight.
+     * The registry stays usable: the next request builds a new pool and client.
+     */
+    @Override
+    public void close() {
+        Map<String, CloseableHttpClient> replaced;
+        PoolingHttpClientConnectionManager closedManager;
+
+        synchronized (this) {
+            replaced = clients;
+            clients = new ConcurrentHashMap<>();
+            closedManager = connectionManager;
+            connectionManager = null;
+
+            if (evictor != null) {
+                evictor.shutdown();
+                evictor = null;
+            }
+        }
+
+        closeAll(replaced);
+
+        if (closedManager != null) {
+            closedManager.shutdown();
+        }
+    }
+
+    // HELPERS
+
+    private PoolingHttpClientConnectionManager connectionManager() {
+        if (connectionManager == null) {
+            connectionManager = new PoolingHttpClientConnectionManager();
+
+            connectionManager.setMaxTotal(maxConnections);
+            connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+            // pooled connections may be closed by the proxy / load balancer while idle
+            connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MILLIS);
+
+            evictor = new IdleConnectionEvictor(connectionManager,
+                                                ApiExecutors.daemonThreadFactory("InsightAppSec idle connection evictor"),
+                                                EVICTION_INTERVAL_MILLIS, TimeUnit.MILLISECONDS,
+                                                MAX_IDLE_MILLIS, TimeUnit.MILLISECONDS);
+            evictor.start();
+        }
+
+        return connectionManager;
+    }
+
+    private CloseableHttpClient buildClient(PoolingHttpClientConnectionManager connectionManager) {
+        HttpClientBuilder builder = HttpClientBuilder.create();
+        configurer.accept(builder);
+        builder.setConnectionManager(connectionManager);
+        // closing a replaced client must not close the pool
+        builder.setConnectionManagerShared(true);
+        builder.setKeepAliveStrategy(keepAliveStrategy());
+        // requests without their own config must not wait forever on a hung connection either
+        builder.setDefaultRequestConfig(defaultRequestConfig());
+        // never disabled: sends Accept-Encoding gzip, deflate and decompresses responses transparently,
+        // which shrinks pages of vulnerabilities carrying request / response exchanges many times over
+        builder.setContentDecoderRegistry(contentDecoders());
+        return builder.build();
+    }
+
+    private static void closeAll(Map<String, CloseableHttpClient> clients) {
+        clients.values().forEach(client -> {
+            try {
+                client.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Error occurred closing an HTTP client", e);
+            }
+        });
+    }
+
+    private static RequestConfig defaultRequestConfig() {
+        return RequestConfig.custom()
+                            .setConnectTimeout(DEFAULT_CONNECT_TIMEOUT_MILLIS)
+                            .setSocketTimeout(DEFAULT_SOCKET_TIMEOUT_MILLIS)
+                            .setConnectionRequestTimeout(DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLIS)
+                            .build();
+    }
+
+    private static Map<String, InputStreamFactory> contentDecoders() {
+        Map<String, InputStreamFactory> decoders = new LinkedHashMap<>(); // in order of preference
+
+        decoders.put("gzip", GZIPInputStreamFactory.getInstance());
+        decoders.put("x-gzip", GZIPInputStreamFactory.getInstance());
+        decoders.put("deflate", DeflateInputStreamFactory.getInstance());
+
+        return decoders;
+    }
+
+    /**
+     * Honor the server's Keep-Alive timeout when present, otherwise fall back to a conservative default
+     * rather than keeping idle connections open indefinitely.
+     */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy() {
+        return (response, context) -> {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+
+            return keepAlive > 0 ? keepAlive : DEFAULT_KEEP_ALIVE_MILLIS;
+        };
+    }
+
+}
@@ -0,0 +1,133 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The number of items requested per page of a collection, either fixed or adapted to the observed size and
+ * retrieval time of the items, so that each page stays close to a target response size and latency.
+ * A size applies to a whole collection, as pages are addressed by index and size; adaptation takes effect for the next collection.
+ */
+public class PageSize {
+
+    public static final int MAX_SIZE = 1000;
+    static final int MIN_SIZE = 10;
+    static final int INITIAL_ADAPTIVE_SIZE = MAX_SIZE; // as when not adapted, until pages prove large or slow
+
+    public static final long DEFAULT_TARGET_LATENCY_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private static final double SMOOTHING = 0.3;
+
+    /**
+     * The largest size permitted by the API, best suited to small items.
+     */
+    public static final PageSize LARGEST = fixed(MAX_SIZE);
+
+    private final String name;
+    private final boolean adaptive;
+    private final int fixedSize;
+
+    private volatile long targetBytes;
+    private final long targetLatencyNanos;
+
+    private double bytesPerItem;
+    private double nanosPerItem;
+    private boolean sampled;
+
+    private PageSize(String name,
+                     boolean adaptive,
+                     int fixedSize,
+                     long targetBytes,
+                     long targetLatencyMillis) {
+        this.name = name;
+        this.adaptive = adaptive;
+        this.fixedSize = fixedSize;
+        this.targetBytes = targetBytes;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+    }
+
+    public static PageSize fixed(int size) {
+        return new PageSize(null, false, Math.max(1, Math.min(size, MAX_SIZE)), 0, 0);
+    }
+
+    /**
+     * @param name                what is being paged, for reporting.
+     * @param targetBytes         the response size to aim for.
+     * @param targetLatencyMillis the time to retrieve and map a page to aim for.
+     */
+    public static PageSize adaptive(String name,
+                                    long targetBytes,
+                                    long targetLatencyMillis) {
+        return new PageSize(name, true, 0, targetBytes, targetLatencyMillis);
+    }
+
+    /**
+     * @return the number of items to request per page of the next collection.
+     */
+    public synchronized int get() {
+        if (!adaptive) {
+            return fixedSize;
+        }
+
+        if (!sampled) {
+            return INITIAL_ADAPTIVE_SIZE;
+        }
+
+        double size = Math.min(targetBytes / Math.max(bytesPerItem, 1),
+                               targetLatencyNanos / Math.max(nanosPerItem, 1));
+
+        return (int) Math.max(MIN_SIZE, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Record a retrieved page, ignored unless adaptive.
+     * @param items        the number of items on the page.
+     * @param bytes        the size of the page content.
+     * @param latencyNanos the time taken to retrieve and map the page.
+     */
+    public synchronized void record(int items,
+                                    long bytes,
+                                    long latencyNanos) {
+        if (!adaptive || items <= 0) {
+            return;
+        }
+
+        double pageBytesPerItem = (double) bytes / items;
+        double pageNanosPerItem = (double) latencyNanos / items;
+
+        if (sampled) {
+            bytesPerItem += SMOOTHING * (pageBytesPerItem - bytesPerItem);
+            nanosPerItem += SMOOTHING * (pageNanosPerItem - nanosPerItem);
+        } else {
+            bytesPerItem = pageBytesPerItem;
+            nanosPerItem = pageNanosPerItem;
+            sampled = true;
+        }
+    }
+
+    /**
+     * @return what is being paged, null unless adaptive.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public long getTargetBytes() {
+        return targetBytes;
+    }
+
+    public void setTargetBytes(long targetBytes) {
+        this.targetBytes = targetBytes;
+    }
+
+    /**
+     * @return the average observed size of an item, 0 until a page has been recorded.
+     */
+    public synchronized long getBytesPerItem() {
+        return (long) bytesPerItem;
+    }
+
+}
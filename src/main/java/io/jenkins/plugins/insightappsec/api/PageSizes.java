@@ -0,0 +1,50 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Controller-wide registry of adaptive {@link PageSize}s, one per type of paged item.
+ */
+public class PageSizes {
+
+    public static final int DEFAULT_TARGET_KILOBYTES = 2048;
+
+    public static final PageSizes GLOBAL = new PageSizes(DEFAULT_TARGET_KILOBYTES * 1024L);
+
+    private final Map<Class<?>, PageSize> sizes = new ConcurrentHashMap<>();
+
+    private volatile long targetBytes;
+
+    public PageSizes(long targetBytes) {
+        this.targetBytes = targetBytes;
+    }
+
+    public PageSize get(Class<?> clazz) {
+        return sizes.computeIfAbsent(clazz, c -> PageSize.adaptive(c.getSimpleName(),
+                                                                   targetBytes,
+                                                                   PageSize.DEFAULT_TARGET_LATENCY_MILLIS));
+    }
+
+    /**
+     * Apply a new target response size to the page sizes created so far and those created hereafter.
+     */
+    public void setTargetBytes(long targetBytes) {
+        this.targetBytes = targetBytes;
+        sizes.values().forEach(size -> size.setTargetBytes(targetBytes));
+    }
+
+    /**
+     * @return all page sizes created so far, ordered by name.
+     */
+    public List<PageSize> getAll() {
+        List<PageSize> all = new ArrayList<>(sizes.values());
+        all.sort(Comparator.comparing(PageSize::getName));
+
+        return all;
+    }
+
+}
@@ -0,0 +1,72 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-memory cache of parsed GET responses, evicting the least recently used entry once full.
+ * Each entry keeps the validators of its response, so it can be revalidated with a conditional GET,
+ * and, when the API sent no ETag, a hash of its body, so an unchanged body need not be parsed again.
+ * The cached content is shared between callers, so is never handed out: each caller maps its own object from it.
+ */
+public class ResponseCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 512;
+
+    public static final ResponseCache GLOBAL = new ResponseCache(DEFAULT_MAX_ENTRIES);
+
+    private final Map<String, Entry> entries;
+
+    public ResponseCache(int maxEntries) {
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the entry cached for the key, or null.
+     */
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(String key,
+                                 Entry entry) {
+        entries.put(key, entry);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+
+        /**
+         * The ETag header of the cached response, null if absent.
+         */
+        private final String etag;
+
+        /**
+         * The Last-Modified header of the cached response, null if absent.
+         */
+        private final String lastModified;
+
+        /**
+         * The SHA-256 hash of the cached response body, null if it had an ETag.
+         */
+        private final String bodyHash;
+
+        private final JsonNode content;
+
+    }
+
+}
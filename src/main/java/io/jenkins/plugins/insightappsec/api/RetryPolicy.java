@@ -0,0 +1,96 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.utils.DateUtils;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether, and after how long, a failed idempotent request is retried.
+ * Delays grow exponentially with full jitter, unless the response specifies a Retry-After.
+ */
+@Data
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class RetryPolicy {
+
+    public static final RetryPolicy DEFAULT = RetryPolicy.builder().build();
+
+    public static final RetryPolicy NONE = RetryPolicy.builder().maxAttempts(1).build();
+
+    /**
+     * The max number of attempts of a single request, including the first.
+     */
+    @Builder.Default
+    private int maxAttempts = 4;
+
+    /**
+     * The upper bound of the delay before the first retry, doubled for each subsequent retry.
+     */
+    @Builder.Default
+    private long baseDelayMillis = 500;
+
+    /**
+     * The upper bound of any delay, including those requested by Retry-After.
+     */
+    @Builder.Default
+    private long maxDelayMillis = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * The response status codes indicating a transient failure.
+     */
+    @Builder.Default
+    private Set<Integer> retryableStatusCodes = Set.of(429, 502, 503, 504);
+
+    public boolean isRetryable(int statusCode) {
+        return retryableStatusCodes.contains(statusCode);
+    }
+
+    /**
+     * @param attempt  the number of the attempt which failed, starting at 1.
+     * @param response the failed response, null if no response was received.
+     * @return the delay before the next attempt.
+     */
+    public long delayMillis(int attempt,
+                            HttpResponse response) {
+        Long retryAfter = retryAfterMillis(response);
+
+        if (retryAfter != null) {
+            return Math.min(retryAfter, maxDelayMillis);
+        }
+
+        // full jitter, a random delay up to the exponential bound
+        long bound = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 20));
+
+        return ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    // HELPERS
+
+    private static Long retryAfterMillis(HttpResponse response) {
+        Header header = response == null ? null : response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+
+        if (header == null) {
+            return null;
+        }
+
+        String value = header.getValue().trim();
+
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(Long.parseLong(value), 0));
+        } catch (NumberFormatException e) {
+            // otherwise an HTTP date
+            Date date = DateUtils.parseDate(value);
+            return date == null ? null : Math.max(date.getTime() - System.currentTimeMillis(), 0);
+        }
+    }
+
+}
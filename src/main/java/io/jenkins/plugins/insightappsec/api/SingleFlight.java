@@ -0,0 +1,119 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import io.jenkins.plugins.insightappsec.exception.DeadlineExceededException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical calls: concurrent callers with the same key share a single in-flight call,
+ * and callers arriving shortly after it completed share its result.
+ * Failures are shared with concurrent callers only, never reused. The leading caller running out of time or being aborted
+ * is its own failure, not theirs, so the concurrent callers then make the call again.
+ * Results are shared between callers, so must be treated as read only.
+ */
+public class SingleFlight {
+
+    public static final long DEFAULT_WINDOW_MILLIS = TimeUnit.SECONDS.toMillis(2);
+
+    public static final SingleFlight GLOBAL = new SingleFlight(DEFAULT_WINDOW_MILLIS, System::currentTimeMillis);
+
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+    private final long windowMillis;
+    private final LongSupplier clock;
+
+    SingleFlight(long windowMillis,
+                 LongSupplier clock) {
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @param key     identifies identical calls.
+     * @param call    the call to make unless an identical one is in flight or has just completed.
+     * @param metrics where to record calls which were coalesced.
+     * @return the result of this or an identical call.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key,
+                         Supplier<T> call,
+                         ApiMetrics metrics) {
+        while (true) {
+            Flight existing = flights.get(key);
+
+            if (existing != null) {
+                if (!existing.future.isDone()) {
+                    metrics.recordCoalesced();
+
+                    try {
+                        return (T) await(existing);
+                    } catch (DeadlineExceededException e) {
+                        continue; // the flight has been removed, lead or join the next one
+                    }
+                }
+
+                if (!existing.future.isCompletedExceptionally() && clock.getAsLong() - existing.completedAt <= windowMillis) {
+                    metrics.recordCoalesced();
+                    return (T) existing.future.join();
+                }
+
+                flights.remove(key, existing);
+                continue;
+            }
+
+            Flight flight = new Flight();
+
+            if (flights.putIfAbsent(key, flight) != null) {
+                continue; // lost the race, join the winner
+            }
+
+            purgeExpired();
+
+            try {
+                T result = call.get();
+
+                flight.completedAt = clock.getAsLong();
+                flight.future.complete(result);
+
+                return result;
+            } catch (RuntimeException e) {
+                flights.remove(key, flight);
+                flight.future.completeExceptionally(e);
+
+                throw e;
+            }
+        }
+    }
+
+    // HELPERS
+
+    private static Object await(Flight flight) {
+        try {
+            return flight.future.join();
+        } catch (CompletionException e) {
+            // surface the failure as the leading caller saw it
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private void purgeExpired() {
+        long now = clock.getAsLong();
+
+        flights.entrySet().removeIf(entry -> entry.getValue().future.isDone() &&
+                                             now - entry.getValue().completedAt > windowMillis);
+    }
+
+    private static final class Flight {
+
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        private volatile long completedAt;
+    }
+
+}
@@ -1,6 +1,8 @@
 package io.jenkins.plugins.insightappsec.api.app;
 
 import io.jenkins.plugins.insightappsec.api.AbstractApi;
+import io.jenkins.plugins.insightappsec.api.ApiOptions;
+import io.jenkins.plugins.insightappsec.api.ApiTransport;
 import org.apache.http.client.HttpClient;
 
 import java.util.List;
@@ -17,6 +19,20 @@ public class AppApi extends AbstractApi {
         super(client, host, apiKey);
     }
 
+    public AppApi(HttpClient client,
+                  String host,
+                  String apiKey,
+                  ApiOptions options) {
+        super(client, host, apiKey, options);
+    }
+
+    public AppApi(ApiTransport transport,
+                  String host,
+                  String apiKey,
+                  ApiOptions options) {
+        super(transport, host, apiKey, options);
+    }
+
     // API OPERATIONS
 
     public List<App> getApps() {
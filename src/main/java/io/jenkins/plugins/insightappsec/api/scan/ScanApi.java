@@ -1,9 +1,20 @@
 package io.jenkins.plugins.insightappsec.api.scan;
 
 import io.jenkins.plugins.insightappsec.api.AbstractApi;
+import io.jenkins.plugins.insightappsec.api.ApiOptions;
+import io.jenkins.plugins.insightappsec.api.ApiTransport;
 import io.jenkins.plugins.insightappsec.api.Identifiable;
+import io.jenkins.plugins.insightappsec.api.PageSize;
+import io.jenkins.plugins.insightappsec.api.search.SearchRequest;
 import org.apache.http.client.HttpClient;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 public class ScanApi extends AbstractApi {
 
     // PATHS
@@ -11,6 +22,11 @@ public class ScanApi extends AbstractApi {
     private static final String SCANS = "/scans";
     private static final String EXECUTION_DETAILS = "/execution-details";
     private static final String ACTION = "/action";
+    private static final String SEARCH = "/search";
+
+    static final int SCAN_LOOKUP_BATCH_SIZE = 100; // keeps the search query to a reasonable length
+
+    private static final PageSize BATCH_PAGE_SIZE = PageSize.fixed(SCAN_LOOKUP_BATCH_SIZE); // a batch fits one page
 
     public ScanApi(HttpClient client,
                    String host,
@@ -18,16 +34,62 @@ public class ScanApi extends AbstractApi {
         super(client, host, apiKey);
     }
 
+    public ScanApi(HttpClient client,
+                   String host,
+                   String apiKey,
+                   ApiOptions options) {
+        super(client, host, apiKey, options);
+    }
+
+    public ScanApi(ApiTransport transport,
+                   String host,
+                   String apiKey,
+                   ApiOptions options) {
+        super(transport, host, apiKey, options);
+    }
+
+    private ScanApi(ScanApi api,
+                    ApiOptions options) {
+        super(api, options);
+    }
+
+    /**
+     * @return this API for lookups made on behalf of many builds, e.g. polling their scans together,
+     * so bound by neither the deadline nor the log of the build which created it.
+     */
+    public ScanApi shared() {
+        return new ScanApi(this, sharedOptions());
+    }
+
     // API OPERATIONS
 
     public String submitScan(String scanConfigId) {
-        return post(SCANS, new Scan(new Identifiable(scanConfigId), null));
+        return post(SCANS, Scan.builder().scanConfig(new Identifiable(scanConfigId)).build());
     }
 
     public Scan getScan(String scanId) {
         return getById(SCANS + "/" + scanId, scanId, Scan.class);
     }
 
+    /**
+     * Look up many scans through the search endpoint, with one query per batch of ids rather than one request per scan.
+     * @return the scans found, keyed by id. Scans not returned by the search are absent.
+     */
+    public Map<String, Scan> getScans(Collection<String> scanIds) {
+        Map<String, Scan> scans = new HashMap<>();
+
+        for (List<String> batch : batches(scanIds)) {
+            String query = batch.stream()
+                                .map(scanId -> String.format("scan.id='%s'", scanId))
+                                .collect(Collectors.joining(" || "));
+
+            postForAll(SEARCH, Scan.class, new SearchRequest(SearchRequest.SearchType.SCAN, query), BATCH_PAGE_SIZE)
+                    .forEach(scan -> scans.put(scan.getId(), scan));
+        }
+
+        return scans;
+    }
+
     public ScanExecutionDetails getScanExecutionDetails(String scanId) {
         return getById(SCANS + "/" + scanId + EXECUTION_DETAILS, scanId, ScanExecutionDetails.class);
     }
@@ -37,4 +99,26 @@ public class ScanApi extends AbstractApi {
         put(SCANS + "/" + scanId + ACTION, scanAction);
     }
 
+    // HELPERS
+
+    private static List<List<String>> batches(Collection<String> scanIds) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>();
+
+        for (String scanId : scanIds) {
+            batch.add(scanId);
+
+            if (batch.size() == SCAN_LOOKUP_BATCH_SIZE) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+
+        return batches;
+    }
+
 }
@@ -1,9 +1,12 @@
 package io.jenkins.plugins.insightappsec.api.search;
 
 import io.jenkins.plugins.insightappsec.api.AbstractApi;
+import io.jenkins.plugins.insightappsec.api.ApiOptions;
+import io.jenkins.plugins.insightappsec.api.ApiTransport;
 import org.apache.http.client.HttpClient;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public class SearchApi extends AbstractApi {
 
@@ -17,6 +20,20 @@ public class SearchApi extends AbstractApi {
         super(client, host, apiKey);
     }
 
+    public SearchApi(HttpClient client,
+                     String host,
+                     String apiKey,
+                     ApiOptions options) {
+        super(client, host, apiKey, options);
+    }
+
+    public SearchApi(ApiTransport transport,
+                     String host,
+                     String apiKey,
+                     ApiOptions options) {
+        super(transport, host, apiKey, options);
+    }
+
     // API OPERATIONS
 
     public <T> List<T> searchAll(SearchRequest searchRequest,
@@ -24,4 +41,22 @@ public class SearchApi extends AbstractApi {
         return postForAll(SEARCH, clazz, searchRequest);
     }
 
+    /**
+     * Search for the first few results only, e.g. to check the API accepts the query.
+     * @param size The max number of results to return.
+     */
+    public <T> List<T> searchFirst(SearchRequest searchRequest,
+                                   Class<T> clazz,
+                                   int size) {
+        return postForFirstPage(SEARCH, clazz, searchRequest, size);
+    }
+
+    /**
+     * Search lazily, requesting each page of results only as the stream is consumed.
+     */
+    public <T> Stream<T> stream(SearchRequest searchRequest,
+                                Class<T> clazz) {
+        return postForStream(SEARCH, clazz, searchRequest);
+    }
+
 }
@@ -17,7 +17,8 @@ public class SearchRequest {
     public enum SearchType {
 
         VULNERABILITY,
-        SCAN_CONFIG
+        SCAN_CONFIG,
+        SCAN
 
     }
 
@@ -1,6 +1,7 @@
 package io.jenkins.plugins.insightappsec.exception;
 
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 
 public class APIException extends RuntimeException {
 
@@ -25,4 +26,25 @@ public class APIException extends RuntimeException {
     public HttpResponse getResponse() {
         return response;
     }
+
+    /**
+     * @return the status code of the response, null if no response was received.
+     */
+    public Integer getStatusCode() {
+        return response == null || response.getStatusLine() == null ? null : response.getStatusLine().getStatusCode();
+    }
+
+    /**
+     * @return whether repeating the request later may succeed: no response was received,
+     * or the API timed out (408), was overloaded (429) or failed (5xx). Other errors, e.g. a revoked API key (401),
+     * a forbidden (403) or missing (404) resource, will fail again.
+     */
+    public boolean isRetryable() {
+        Integer statusCode = getStatusCode();
+
+        return statusCode == null
+                || statusCode == HttpStatus.SC_REQUEST_TIMEOUT
+                || statusCode == HttpStatus.SC_TOO_MANY_REQUESTS
+                || statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR;
+    }
 }
@@ -0,0 +1,11 @@
+package io.jenkins.plugins.insightappsec.exception;
+
+public class CircuitBreakerOpenException extends APIException {
+
+    private static final long serialVersionUID = -4317625408764193510L;
+
+    public CircuitBreakerOpenException(String host) {
+        super(String.format("Requests to [%s] are paused after repeated failures", host), (Throwable) null);
+    }
+
+}
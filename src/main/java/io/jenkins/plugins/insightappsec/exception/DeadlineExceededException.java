@@ -0,0 +1,21 @@
+package io.jenkins.plugins.insightappsec.exception;
+
+public class DeadlineExceededException extends APIException {
+
+    private static final long serialVersionUID = -2164310595872930154L;
+
+    public DeadlineExceededException(String method,
+                                     String path,
+                                     Throwable cause) {
+        super(String.format("%s %s abandoned, the build has run out of time or was aborted", method, path), cause);
+    }
+
+    /**
+     * @return false, the build has no time left to repeat the request.
+     */
+    @Override
+    public boolean isRetryable() {
+        return false;
+    }
+
+}
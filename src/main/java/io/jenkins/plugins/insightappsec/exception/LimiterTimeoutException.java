@@ -0,0 +1,15 @@
+package io.jenkins.plugins.insightappsec.exception;
+
+public class LimiterTimeoutException extends APIException {
+
+    private static final long serialVersionUID = 3094710936652081187L;
+
+    public LimiterTimeoutException(String method,
+                                   String path,
+                                   long waitedMillis,
+                                   String limiterKey) {
+        super(String.format("%s %s was not sent, no request of the [%s] concurrency limit completed within %s ms",
+                            method, path, limiterKey, waitedMillis), (Throwable) null);
+    }
+
+}
@@ -0,0 +1,20 @@
+package io.jenkins.plugins.insightappsec.exception;
+
+import java.util.List;
+
+public class PreflightCheckException extends RuntimeException {
+
+    private static final long serialVersionUID = 6398134542279315842L;
+
+    private final List<String> failures;
+
+    public PreflightCheckException(List<String> failures) {
+        super(String.format("Scan was not submitted, pre-flight checks failed:%n - %s", String.join(String.format("%n - "), failures)));
+        this.failures = List.copyOf(failures);
+    }
+
+    public List<String> getFailures() {
+        return failures;
+    }
+
+}
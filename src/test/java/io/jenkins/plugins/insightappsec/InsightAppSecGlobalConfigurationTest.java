@@ -0,0 +1,49 @@
+package io.jenkins.plugins.insightappsec;
+
+import io.jenkins.plugins.insightappsec.api.CircuitBreakers;
+import io.jenkins.plugins.insightappsec.api.PageSizes;
+import io.jenkins.plugins.insightappsec.api.scan.Scan;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import static org.junit.Assert.assertEquals;
+
+public class InsightAppSecGlobalConfigurationTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @After
+    public void tearDown() {
+        // the registries outlive the test's controller
+        CircuitBreakers.GLOBAL.setFailureRateThreshold(CircuitBreakers.DEFAULT_FAILURE_RATE_THRESHOLD);
+        PageSizes.GLOBAL.setTargetBytes(PageSizes.DEFAULT_TARGET_KILOBYTES * 1024L);
+    }
+
+    @Test
+    public void setCircuitBreakerFailureRate_appliedToBreakers() {
+        // given
+        InsightAppSecGlobalConfiguration configuration = InsightAppSecGlobalConfiguration.get();
+
+        // when - e.g. by configuration as code, without restarting
+        configuration.setCircuitBreakerFailureRate(30);
+
+        // then
+        assertEquals(30, CircuitBreakers.GLOBAL.get(Region.US).getFailureRateThreshold());
+    }
+
+    @Test
+    public void setTargetPageSize_appliedToPageSizes() {
+        // given
+        InsightAppSecGlobalConfiguration configuration = InsightAppSecGlobalConfiguration.get();
+
+        // when
+        configuration.setTargetPageSize(512);
+
+        // then
+        assertEquals(512 * 1024L, PageSizes.GLOBAL.get(Scan.class).getTargetBytes());
+    }
+
+}
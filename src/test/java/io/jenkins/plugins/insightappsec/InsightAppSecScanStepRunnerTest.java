@@ -1,39 +1,52 @@
 package io.jenkins.plugins.insightappsec;
 
+import io.jenkins.plugins.insightappsec.api.Deadline;
 import io.jenkins.plugins.insightappsec.api.Identifiable;
 import io.jenkins.plugins.insightappsec.api.scan.Scan;
 import io.jenkins.plugins.insightappsec.api.scan.ScanApi;
 import io.jenkins.plugins.insightappsec.api.scan.ScanExecutionDetails;
+import io.jenkins.plugins.insightappsec.api.scanconfig.ScanConfig;
 import io.jenkins.plugins.insightappsec.api.search.SearchApi;
 import io.jenkins.plugins.insightappsec.api.search.SearchRequest;
 import io.jenkins.plugins.insightappsec.api.vulnerability.Vulnerability;
 import io.jenkins.plugins.insightappsec.exception.APIException;
+import io.jenkins.plugins.insightappsec.exception.DeadlineExceededException;
+import io.jenkins.plugins.insightappsec.exception.PreflightCheckException;
 import io.jenkins.plugins.insightappsec.exception.ScanFailureException;
+import io.jenkins.plugins.insightappsec.mock.MockHttpResponse;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import static io.jenkins.plugins.insightappsec.api.scan.ScanExecutionDetailsModels.aCompleteScanExecutionDetails;
 import static io.jenkins.plugins.insightappsec.api.scan.ScanModels.aScan;
+import static io.jenkins.plugins.insightappsec.api.scanconfig.ScanConfigModels.aCompleteScanConfig;
 import static io.jenkins.plugins.insightappsec.api.search.SearchRequestModels.aVulnerabilitySearchRequest;
 import static io.jenkins.plugins.insightappsec.api.vulnerability.VulnerabilityModels.aCompleteVulnerability;
 import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -41,6 +54,8 @@ import static org.mockito.Mockito.when;
 @RunWith(MockitoJUnitRunner.class)
 public class InsightAppSecScanStepRunnerTest {
 
+    private static final long MAX_POLLING_MILLIS = TimeUnit.HOURS.toMillis(1);
+
     @Mock
     private ScanApi scanApi;
 
@@ -53,7 +68,19 @@ public class InsightAppSecScanStepRunnerTest {
     @Mock
     private ScanDurationHandler scanDurationHandler;
 
-    @InjectMocks
+    @Mock
+    private ScanCanceller scanCanceller;
+
+    @Mock
+    private ScanJournal.Recorder scanJournal;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private ScanStatusPoller poller;
+
     private InsightAppSecScanStepRunner runner;
 
     private String scanConfigId = UUID.randomUUID().toString();
@@ -61,6 +88,13 @@ public class InsightAppSecScanStepRunnerTest {
 
     private Scan.ScanBuilder scanBuilder = aScan().scanConfig(new Identifiable(scanConfigId));
 
+    @Before
+    public void setup() {
+        // the default intervals, ticked by the test against the fake clock rather than waited for
+        poller = new ScanStatusPoller(scheduler, Runnable::run, PollIntervalPolicy.DEFAULT, now::get);
+        runner = newRunner(Deadline.unbounded());
+    }
+
     // ADVANCE ON SUBMISSION
 
     @Test
@@ -69,7 +103,7 @@ public class InsightAppSecScanStepRunnerTest {
         mockSubmitScan();
 
         // when
-        Optional<ScanResults> results = runner.run(scanConfigId, BuildAdvanceIndicator.SCAN_SUBMITTED, null);
+        Optional<ScanResults> results = run(BuildAdvanceIndicator.SCAN_SUBMITTED, null);
 
         // then
         verify(logger, times(1)).log("Scan submitted successfully");
@@ -87,7 +121,7 @@ public class InsightAppSecScanStepRunnerTest {
                                      .thenReturn(scanBuilder.status(Scan.ScanStatus.RUNNING).build());
 
         // when
-        Optional<ScanResults> results = runner.run(scanConfigId, BuildAdvanceIndicator.SCAN_STARTED, null);
+        Optional<ScanResults> results = run(BuildAdvanceIndicator.SCAN_STARTED, null);
 
         // then
         verify(logger, times(1)).log("Scan submitted successfully");
@@ -115,7 +149,7 @@ public class InsightAppSecScanStepRunnerTest {
         ScanExecutionDetails scanExecutionDetails = mockGetScanExecutionDetails();
 
         // when
-        Optional<ScanResults> results = runner.run(scanConfigId, BuildAdvanceIndicator.SCAN_COMPLETED, null);
+        Optional<ScanResults> results = run(BuildAdvanceIndicator.SCAN_COMPLETED, null);
 
         // then
         verify(logger, times(1)).log("Scan submitted successfully");
@@ -142,7 +176,7 @@ public class InsightAppSecScanStepRunnerTest {
 
         // when
         ScanFailureException thrown = Assert.assertThrows(ScanFailureException.class, () ->
-            runner.run(scanConfigId, BuildAdvanceIndicator.SCAN_COMPLETED, null)
+            run(BuildAdvanceIndicator.SCAN_COMPLETED, null)
         );
 
         // then
@@ -160,7 +194,7 @@ public class InsightAppSecScanStepRunnerTest {
 
         // when
         ScanFailureException thrown = Assert.assertThrows(ScanFailureException.class, () ->
-            runner.run(scanConfigId, BuildAdvanceIndicator.SCAN_COMPLETED, null)
+            run(BuildAdvanceIndicator.SCAN_COMPLETED, null)
         );
 
         // then
@@ -184,7 +218,7 @@ public class InsightAppSecScanStepRunnerTest {
         mockGetScanExecutionDetails();
 
         // when
-        runner.run(scanConfigId, BuildAdvanceIndicator.SCAN_COMPLETED, null);
+        run(BuildAdvanceIndicator.SCAN_COMPLETED, null);
 
         // then
         verify(logger, times(1)).log("Scan submitted successfully");
@@ -211,7 +245,7 @@ public class InsightAppSecScanStepRunnerTest {
         mockGetScanExecutionDetails();
 
         // when
-        runner.run(scanConfigId, BuildAdvanceIndicator.SCAN_COMPLETED, null);
+        run(BuildAdvanceIndicator.SCAN_COMPLETED, null);
 
         // then
         verify(logger, times(1)).log("Scan submitted successfully");
@@ -224,52 +258,58 @@ public class InsightAppSecScanStepRunnerTest {
     }
 
     /**
-     * Ensure an exception is thrown when total failures in sequence are greater than failure threshold.
+     * Ensure polling fails immediately on errors which will not resolve themselves, rather than spending the failure budget.
      * Scenario:
-     * - First 21 polls fail
+     * - First poll is unauthorized, e.g. the API key has been revoked
      */
     @Test
-    public void run_advanceWhenCompleted_subsequentPollsFailAboveThreshold() throws InterruptedException {
+    public void run_advanceWhenCompleted_pollUnauthorized_failsImmediately() throws InterruptedException {
         // given
         mockSubmitScan();
 
-        when(scanApi.getScan(scanId)).thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException());
+        when(scanApi.getScan(scanId)).thenThrow(new APIException("Error occurred during GET", MockHttpResponse.create(401)));
 
         // when
-        RuntimeException thrown = Assert.assertThrows(RuntimeException.class, () ->
-            runner.run(scanConfigId, BuildAdvanceIndicator.SCAN_COMPLETED, null)
+        APIException thrown = Assert.assertThrows(APIException.class, () ->
+            run(BuildAdvanceIndicator.SCAN_COMPLETED, null)
         );
 
         // then
-        Assert.assertTrue(thrown.getMessage().contains("Scan polling has failed 21 times, aborting"));
+        assertEquals(Integer.valueOf(401), thrown.getStatusCode());
+        verify(scanApi, times(1)).getScan(scanId);
     }
 
     /**
-     * Ensure that a successful poll will reset the total failure count.
+     * Ensure polling fails immediately once the scan can no longer be found.
      * Scenario:
-     * - 20 polls fail
+     * - First poll succeeds
+     * - Then the scan is not found
+     */
+    @Test
+    public void run_advanceWhenCompleted_scanNotFound_failsImmediately() throws InterruptedException {
+        // given
+        mockSubmitScan();
+
+        when(scanApi.getScan(scanId)).thenReturn(scanBuilder.status(Scan.ScanStatus.PENDING).build())
+                                     .thenThrow(new APIException("Error occurred during GET", MockHttpResponse.create(404)));
+
+        // when
+        APIException thrown = Assert.assertThrows(APIException.class, () ->
+            run(BuildAdvanceIndicator.SCAN_COMPLETED, null)
+        );
+
+        // then
+        assertEquals(Integer.valueOf(404), thrown.getStatusCode());
+        verify(scanApi, times(2)).getScan(scanId);
+    }
+
+    /**
+     * Ensure that transient failures keep polling, and a successful poll resets the failure budget.
+     * Scenario, at the default intervals:
+     * - 8 polls fail while the scan is pending, spanning about 4 minutes
      * - Then success
-     *  - Then next 2 polls fail
+     * - Then 8 polls fail while the scan is running, spanning about 2 minutes,
+     *   more than the 5 minute failure budget since the first failure were it not reset
      */
     @Test
     public void run_advanceWhenSubmitted_successResetsFailureCount() throws InterruptedException {
@@ -285,6 +325,7 @@ public class InsightAppSecScanStepRunnerTest {
                                      .thenThrow(new APIException())
                                      .thenThrow(new APIException())
                                      .thenThrow(new APIException())
+                                     .thenReturn(scanBuilder.status(Scan.ScanStatus.RUNNING).build())
                                      .thenThrow(new APIException())
                                      .thenThrow(new APIException())
                                      .thenThrow(new APIException())
@@ -293,22 +334,16 @@ public class InsightAppSecScanStepRunnerTest {
                                      .thenThrow(new APIException())
                                      .thenThrow(new APIException())
                                      .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
-                                     .thenReturn(scanBuilder.status(Scan.ScanStatus.RUNNING).build())
-                                     .thenThrow(new APIException())
-                                     .thenThrow(new APIException())
                                      .thenReturn(scanBuilder.status(Scan.ScanStatus.COMPLETE).build());
 
         mockGetVulnerabilities();
         mockGetScanExecutionDetails();
 
         // when
-        runner.run(scanConfigId, BuildAdvanceIndicator.SCAN_COMPLETED, null);
+        run(BuildAdvanceIndicator.SCAN_COMPLETED, null);
 
         // then
+        assertTrue(now.get() > ScanStatusTracker.FAILURE_BUDGET_MILLIS);
         verify(logger, times(1)).log("Scan submitted successfully");
         verify(logger, times(1)).log("Beginning polling for scan with id: %s", scanId);
         verify(logger, times(1)).log("Scan status: %s", Scan.ScanStatus.PENDING);
@@ -318,6 +353,27 @@ public class InsightAppSecScanStepRunnerTest {
 
     }
 
+    /**
+     * Ensure polling fails once transient failures have outlasted the failure budget.
+     */
+    @Test
+    public void run_advanceWhenCompleted_pollsKeepFailing_failsAfterBudget() {
+        // given
+        mockSubmitScan();
+
+        when(scanApi.getScan(scanId)).thenReturn(scanBuilder.status(Scan.ScanStatus.PENDING).build())
+                                     .thenThrow(new APIException());
+
+        // when
+        RuntimeException thrown = Assert.assertThrows(RuntimeException.class, () ->
+            run(BuildAdvanceIndicator.SCAN_COMPLETED, null)
+        );
+
+        // then
+        assertTrue(thrown.getMessage().startsWith("Scan polling has failed"));
+        assertTrue(now.get() > ScanStatusTracker.FAILURE_BUDGET_MILLIS);
+    }
+
     // ADVANCE ON VULNERABILITY QUERY
 
     @Test
@@ -332,7 +388,7 @@ public class InsightAppSecScanStepRunnerTest {
         List<Vulnerability> vulnerabilities = mockGetVulnerabilities(null, 0);
 
         // when
-        Optional<ScanResults> results = runner.run(scanConfigId, BuildAdvanceIndicator.VULNERABILITY_QUERY, null);
+        Optional<ScanResults> results = run(BuildAdvanceIndicator.VULNERABILITY_QUERY, null);
 
         // then
         assertTrue(results.isPresent());
@@ -352,7 +408,7 @@ public class InsightAppSecScanStepRunnerTest {
         List<Vulnerability> vulnerabilities = mockGetVulnerabilities(null, 10);
 
         // when
-        Optional<ScanResults> results = runner.run(scanConfigId, BuildAdvanceIndicator.VULNERABILITY_QUERY, null);
+        Optional<ScanResults> results = run(BuildAdvanceIndicator.VULNERABILITY_QUERY, null);
 
         // then
         assertTrue(results.isPresent());
@@ -373,7 +429,7 @@ public class InsightAppSecScanStepRunnerTest {
         List<Vulnerability> vulnerabilities = mockGetVulnerabilities(vulnerabilityQuery, 0);
 
         // when
-        Optional<ScanResults> results = runner.run(scanConfigId, BuildAdvanceIndicator.VULNERABILITY_QUERY, vulnerabilityQuery);
+        Optional<ScanResults> results = run(BuildAdvanceIndicator.VULNERABILITY_QUERY, vulnerabilityQuery);
 
         // then
         assertTrue(results.isPresent());
@@ -394,7 +450,7 @@ public class InsightAppSecScanStepRunnerTest {
         List<Vulnerability> vulnerabilities = mockGetVulnerabilities(vulnerabilityQuery, 10);
 
         // when
-        Optional<ScanResults> results = runner.run(scanConfigId, BuildAdvanceIndicator.VULNERABILITY_QUERY, vulnerabilityQuery);
+        Optional<ScanResults> results = run(BuildAdvanceIndicator.VULNERABILITY_QUERY, vulnerabilityQuery);
 
         // then
         assertTrue(results.isPresent());
@@ -402,12 +458,241 @@ public class InsightAppSecScanStepRunnerTest {
         assertEquals(results.get().getVulnerabilities(), vulnerabilities);
     }
 
+    // ABORT
+
+    @Test
+    public void run_advanceWhenCompleted_interrupted_cancelsScan() {
+        // given
+        mockSubmitScan();
+
+        Deadline deadline = Deadline.unbounded();
+        InsightAppSecScanStepRunner runner = newRunner(deadline);
+
+        when(scanApi.getScan(scanId)).thenAnswer(invocation -> {
+            Thread.currentThread().interrupt(); // e.g. the build is aborted while waiting on the scan
+            return scanBuilder.status(Scan.ScanStatus.RUNNING).build();
+        });
+
+        // when
+        Assert.assertThrows(InterruptedException.class, () ->
+            runner.run(scanConfigId, BuildAdvanceIndicator.SCAN_COMPLETED, null)
+        );
+
+        // then
+        assertTrue(deadline.isCancelled());
+        verify(scanCanceller, times(1)).cancel(scanId);
+        verify(scanJournal, never()).release(scanId); // not cancelled, left to be reaped on restart
+    }
+
+    // DEADLINE
+
+    @Test
+    public void run_advanceWhenCompleted_deadlineExceeded_cancelsScan() {
+        // given
+        mockSubmitScan();
+
+        when(scanApi.getScan(scanId)).thenThrow(new DeadlineExceededException("GET", "/scans/" + scanId, null));
+
+        // when
+        Assert.assertThrows(DeadlineExceededException.class, () ->
+            run(BuildAdvanceIndicator.SCAN_COMPLETED, null)
+        );
+
+        // then
+        verify(scanCanceller, times(1)).cancel(scanId);
+        verify(scanJournal, never()).release(scanId); // not cancelled, left to be reaped on restart
+    }
+
+    @Test
+    public void run_advanceWhenCompleted_deadlineExceeded_scanCancelled_scanReleased() {
+        // given
+        mockSubmitScan();
+
+        when(scanApi.getScan(scanId)).thenThrow(new DeadlineExceededException("GET", "/scans/" + scanId, null));
+        when(scanCanceller.cancel(scanId)).thenReturn(true);
+
+        // when
+        Assert.assertThrows(DeadlineExceededException.class, () ->
+            run(BuildAdvanceIndicator.SCAN_COMPLETED, null)
+        );
+
+        // then
+        verify(scanJournal, times(1)).release(scanId);
+    }
+
+    // SCAN JOURNAL
+
+    @Test
+    public void run_advanceWhenSubmitted_scanJournalledUntilDone() throws InterruptedException {
+        // given
+        mockSubmitScan();
+
+        // when
+        run(BuildAdvanceIndicator.SCAN_SUBMITTED, null);
+
+        // then
+        verify(scanJournal, times(1)).record(scanId);
+        verify(scanJournal, times(1)).release(scanId);
+    }
+
+    @Test
+    public void run_advanceWhenCompleted_scanFails_scanReleased() {
+        // given
+        mockSubmitScan();
+
+        when(scanApi.getScan(scanId)).thenReturn(scanBuilder.status(Scan.ScanStatus.FAILED).build());
+
+        // when
+        Assert.assertThrows(ScanFailureException.class, () ->
+            run(BuildAdvanceIndicator.SCAN_COMPLETED, null)
+        );
+
+        // then
+        verify(scanJournal, times(1)).record(scanId);
+        verify(scanJournal, times(1)).release(scanId);
+    }
+
+    @Test
+    public void cancelJournaledScans_cancelledScansReleased() {
+        // given - e.g. submitted just before the controller restarted
+        given(scanJournal.getScanIds()).willReturn(List.of("scan-1", "scan-2"));
+        given(scanCanceller.cancel("scan-1")).willReturn(true);
+
+        // when
+        runner.cancelJournaledScans();
+
+        // then
+        verify(scanCanceller, times(1)).cancel("scan-2");
+        verify(scanJournal, times(1)).release("scan-1");
+        verify(scanJournal, never()).release("scan-2"); // not cancelled, left to be reaped on restart
+    }
+
+    // PRE-FLIGHT
+
+    @Test
+    public void run_preflight_scanConfigNotFound_scanNotSubmitted() {
+        // given
+        given(searchApi.searchFirst(any(), eq(ScanConfig.class), eq(1))).willReturn(List.of());
+
+        // when
+        PreflightCheckException thrown = Assert.assertThrows(PreflightCheckException.class, () ->
+            run(BuildAdvanceIndicator.SCAN_COMPLETED, null)
+        );
+
+        // then
+        assertEquals(List.of(String.format("Scan config [%s] was not found", scanConfigId)), thrown.getFailures());
+        verify(scanApi, never()).submitScan(anyString());
+    }
+
+    @Test
+    public void run_preflight_apiKeyRejected_scanNotSubmitted() {
+        // given
+        given(searchApi.searchFirst(any(), eq(ScanConfig.class), eq(1)))
+                .willThrow(new APIException("Error occurred during POST", MockHttpResponse.create(401)));
+
+        // when
+        PreflightCheckException thrown = Assert.assertThrows(PreflightCheckException.class, () ->
+            run(BuildAdvanceIndicator.SCAN_COMPLETED, null)
+        );
+
+        // then
+        assertEquals(List.of("The API key was rejected, check the credentials are valid and have not been revoked"), thrown.getFailures());
+        verify(scanApi, never()).submitScan(anyString());
+    }
+
+    @Test
+    public void run_preflight_invalidVulnerabilityQuery_scanNotSubmitted() {
+        // given
+        mockScanConfig();
+
+        String vulnerabilityQuery = "vulnerability.severity=";
+        String composedQuery = String.format("vulnerability.scans.id='%s' && (%s)",
+                                             InsightAppSecScanStepRunner.PREFLIGHT_SCAN_ID, vulnerabilityQuery);
+
+        given(searchApi.searchFirst(argThat(request -> request != null && composedQuery.equals(request.getQuery())),
+                                    eq(Vulnerability.class), eq(1)))
+                .willThrow(new APIException("Error occurred during POST", MockHttpResponse.create(400)));
+
+        // when
+        PreflightCheckException thrown = Assert.assertThrows(PreflightCheckException.class, () ->
+            run(BuildAdvanceIndicator.VULNERABILITY_QUERY, vulnerabilityQuery)
+        );
+
+        // then
+        assertEquals(List.of(String.format("Vulnerability query [%s] is invalid", vulnerabilityQuery)), thrown.getFailures());
+        verify(scanApi, never()).submitScan(anyString());
+    }
+
+    @Test
+    public void run_preflight_allChecksFail_allReported() {
+        // given
+        given(searchApi.searchFirst(any(), eq(ScanConfig.class), eq(1))).willReturn(List.of());
+        given(searchApi.searchFirst(any(), eq(Vulnerability.class), eq(1)))
+                .willThrow(new APIException("Error occurred during POST", MockHttpResponse.create(400)));
+
+        // when
+        PreflightCheckException thrown = Assert.assertThrows(PreflightCheckException.class, () ->
+            run(BuildAdvanceIndicator.VULNERABILITY_QUERY, "vulnerability.severity=")
+        );
+
+        // then
+        assertEquals(2, thrown.getFailures().size());
+        verify(scanApi, never()).submitScan(anyString());
+    }
+
     // TEST HELPERS
 
+    private InsightAppSecScanStepRunner newRunner(Deadline deadline) {
+        return new InsightAppSecScanStepRunner(scanApi, searchApi, logger, scanDurationHandler, deadline, scanCanceller, scanJournal,
+                                               poller, now::get);
+    }
+
+    /**
+     * Run the build on another thread, ticking the poller and advancing the fake clock while the scan is being polled.
+     */
+    private Optional<ScanResults> run(BuildAdvanceIndicator buildAdvanceIndicator,
+                                      String vulnerabilityQuery) throws InterruptedException {
+        CompletableFuture<Optional<ScanResults>> results = CompletableFuture.supplyAsync(() -> {
+            try {
+                return runner.run(scanConfigId, buildAdvanceIndicator, vulnerabilityQuery);
+            } catch (InterruptedException e) {
+                throw new CompletionException(e);
+            }
+        });
+
+        while (!results.isDone()) {
+            if (poller.getRegisteredCount() > 0) {
+                assertTrue("Polled for longer than expected", now.addAndGet(ScanStatusPoller.TICK_MILLIS) < MAX_POLLING_MILLIS);
+                poller.tick();
+            } else {
+                Thread.sleep(1);
+            }
+        }
+
+        try {
+            return results.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof InterruptedException) {
+                throw (InterruptedException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     private void mockSubmitScan() {
+        mockScanConfig();
+
         given(scanApi.submitScan(scanConfigId)).willReturn(scanId);
     }
 
+    private void mockScanConfig() {
+        given(searchApi.searchFirst(any(), eq(ScanConfig.class), eq(1)))
+                .willReturn(List.of(aCompleteScanConfig().id(scanConfigId).build()));
+    }
+
     private ScanExecutionDetails mockGetScanExecutionDetails() {
         ScanExecutionDetails details = aCompleteScanExecutionDetails().build();
 
@@ -442,8 +727,4 @@ public class InsightAppSecScanStepRunnerTest {
         return vulnerabilities;
     }
 
-    // Note: Thread.sleep is no longer mocked globally. Tests that poll for scan status
-    // will actually sleep briefly. For tests requiring verification, wrap in:
-    // try (MockedStatic<Thread> threadMock = mockStatic(Thread.class)) { ... }
-
 }
\ No newline at end of file
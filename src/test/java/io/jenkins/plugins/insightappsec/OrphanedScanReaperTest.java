@@ -0,0 +1,116 @@
+package io.jenkins.plugins.insightappsec;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OrphanedScanReaperTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private ScanCanceller scanCanceller;
+
+    private ScanJournal journal;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @Before
+    public void setup() {
+        journal = new ScanJournal(new File(folder.getRoot(), ScanJournal.FILE_NAME));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void reap_buildsNotRunning_scansCancelled() throws Exception {
+        // given
+        journal.recorder("job/app#1", "cred-1", "US").record("scan-1");
+        journal.recorder("job/app#2", "cred-1", "US").record("scan-2");
+
+        when(scanCanceller.cancel(anyString())).thenReturn(true);
+
+        OrphanedScanReaper reaper = new OrphanedScanReaper(journal, buildId -> false, entry -> scanCanceller, executor);
+
+        // when
+        reaper.reap().get(5, TimeUnit.SECONDS);
+
+        // then
+        verify(scanCanceller, times(1)).cancel("scan-1");
+        verify(scanCanceller, times(1)).cancel("scan-2");
+        assertTrue(journal.getEntries().isEmpty());
+    }
+
+    @Test
+    public void reap_buildStillRunning_scanLeftToBuild() throws Exception {
+        // given
+        journal.recorder("job/pipeline#1", "cred-1", "US").record("scan-1");
+        journal.recorder("job/app#2", "cred-1", "US").record("scan-2");
+
+        when(scanCanceller.cancel("scan-2")).thenReturn(true);
+
+        Set<String> running = Set.of("job/pipeline#1");
+        OrphanedScanReaper reaper = new OrphanedScanReaper(journal, running::contains, entry -> scanCanceller, executor);
+
+        // when
+        reaper.reap().get(5, TimeUnit.SECONDS);
+
+        // then
+        verify(scanCanceller, never()).cancel("scan-1");
+        assertEquals(List.of(new ScanJournal.Entry("scan-1", "job/pipeline#1", "cred-1", "US", null)), journal.getEntries());
+    }
+
+    @Test
+    public void reap_cancellerFails_entryRemoved() throws Exception {
+        // given
+        journal.recorder("job/app#1", "deleted-cred", "US").record("scan-1");
+
+        OrphanedScanReaper reaper = new OrphanedScanReaper(journal, buildId -> false, entry -> {
+            throw new IllegalStateException("Insight credentials not found for ID deleted-cred");
+        }, executor);
+
+        // when
+        reaper.reap().get(5, TimeUnit.SECONDS);
+
+        // then
+        assertTrue(journal.getEntries().isEmpty());
+    }
+
+    @Test
+    public void reap_emptyJournal() throws Exception {
+        // given
+        OrphanedScanReaper reaper = new OrphanedScanReaper(journal, buildId -> false, entry -> scanCanceller, executor);
+
+        // when
+        reaper.reap().get(5, TimeUnit.SECONDS);
+
+        // then
+        verify(scanCanceller, never()).cancel(anyString());
+    }
+
+}
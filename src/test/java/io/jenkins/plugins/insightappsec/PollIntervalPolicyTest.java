@@ -0,0 +1,52 @@
+package io.jenkins.plugins.insightappsec;
+
+import io.jenkins.plugins.insightappsec.api.scan.Scan;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class PollIntervalPolicyTest {
+
+    private final PollIntervalPolicy policy = PollIntervalPolicy.DEFAULT;
+
+    @Test
+    public void intervalMillis_unknownStatus() {
+        assertEquals(TimeUnit.SECONDS.toMillis(15), policy.intervalMillis(null, 0));
+        assertEquals(TimeUnit.SECONDS.toMillis(15), policy.intervalMillis(Scan.ScanStatus.UNKNOWN, 100));
+    }
+
+    @Test
+    public void intervalMillis_waitingStatus() {
+        assertEquals(TimeUnit.SECONDS.toMillis(30), policy.intervalMillis(Scan.ScanStatus.QUEUED, 0));
+    }
+
+    @Test
+    public void intervalMillis_steadyStateStretches() {
+        assertEquals(TimeUnit.SECONDS.toMillis(15), policy.intervalMillis(Scan.ScanStatus.RUNNING, 7));
+        assertEquals(TimeUnit.SECONDS.toMillis(30), policy.intervalMillis(Scan.ScanStatus.RUNNING, 8));
+        assertEquals(TimeUnit.SECONDS.toMillis(60), policy.intervalMillis(Scan.ScanStatus.RUNNING, 16));
+    }
+
+    @Test
+    public void intervalMillis_steadyStateCapped() {
+        assertEquals(TimeUnit.SECONDS.toMillis(60), policy.intervalMillis(Scan.ScanStatus.RUNNING, 1000));
+        assertEquals(TimeUnit.SECONDS.toMillis(60), policy.intervalMillis(Scan.ScanStatus.PENDING, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void intervalMillis_nearCompletionDoesNotStretch() {
+        assertEquals(TimeUnit.SECONDS.toMillis(5), policy.intervalMillis(Scan.ScanStatus.SCANNED, 0));
+        assertEquals(TimeUnit.SECONDS.toMillis(5), policy.intervalMillis(Scan.ScanStatus.PROCESSED, 100));
+    }
+
+    @Test
+    public void intervalMillis_fixed() {
+        PollIntervalPolicy fixed = PollIntervalPolicy.fixed(1000);
+
+        assertEquals(1000, fixed.intervalMillis(Scan.ScanStatus.RUNNING, 1000));
+        assertEquals(1000, fixed.intervalMillis(null, 0));
+    }
+
+}
@@ -0,0 +1,212 @@
+package io.jenkins.plugins.insightappsec;
+
+import io.jenkins.plugins.insightappsec.api.Deadline;
+import io.jenkins.plugins.insightappsec.api.RetryPolicy;
+import io.jenkins.plugins.insightappsec.api.scan.Scan;
+import io.jenkins.plugins.insightappsec.api.scan.ScanAction;
+import io.jenkins.plugins.insightappsec.api.scan.ScanApi;
+import io.jenkins.plugins.insightappsec.exception.APIException;
+import io.jenkins.plugins.insightappsec.mock.MockHttpResponse;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static io.jenkins.plugins.insightappsec.api.scan.ScanModels.aScan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScanCancellerTest {
+
+    @Mock
+    private ScanApi scanApi;
+
+    @Mock
+    private InsightAppSecLogger logger;
+
+    private final List<Deadline> deadlines = new ArrayList<>();
+
+    private ScanCanceller scanCanceller;
+
+    private String scanId = UUID.randomUUID().toString();
+
+    @Before
+    public void setup() {
+        scanCanceller = new ScanCanceller(deadline -> {
+            deadlines.add(deadline);
+            return scanApi;
+        }, logger, RetryPolicy.DEFAULT.toBuilder()
+                                      .maxAttempts(ScanCanceller.MAX_ATTEMPTS)
+                                      .baseDelayMillis(1)
+                                      .maxDelayMillis(ScanCanceller.TIMEOUT_MILLIS) // so Retry-After is not capped below the timeout
+                                      .build());
+    }
+
+    @Test
+    public void cancel_pending_cancelsScan() {
+        // given
+        mockStatus(Scan.ScanStatus.PENDING);
+
+        // when
+        boolean cancelled = scanCanceller.cancel(scanId);
+
+        // then
+        assertTrue(cancelled);
+        verify(scanApi, times(1)).submitScanAction(scanId, new ScanAction(ScanAction.Action.CANCEL));
+        verify(logger, times(1)).log("%s submitted successfully for scan with id: %s", ScanAction.Action.CANCEL, scanId);
+    }
+
+    @Test
+    public void cancel_running_stopsScan() {
+        // given
+        mockStatus(Scan.ScanStatus.RUNNING);
+
+        // when
+        boolean cancelled = scanCanceller.cancel(scanId);
+
+        // then
+        assertTrue(cancelled);
+        verify(scanApi, times(1)).submitScanAction(scanId, new ScanAction(ScanAction.Action.STOP));
+    }
+
+    @Test
+    public void cancel_complete_leftAsIs() {
+        // given
+        mockStatus(Scan.ScanStatus.COMPLETE);
+
+        // when
+        boolean cancelled = scanCanceller.cancel(scanId);
+
+        // then
+        assertTrue(cancelled);
+        verify(scanApi, never()).submitScanAction(any(), any());
+    }
+
+    @Test
+    public void cancel_ownDeadline() {
+        // given
+        mockStatus(Scan.ScanStatus.RUNNING);
+
+        // when
+        scanCanceller.cancel(scanId);
+
+        // then
+        assertTrue(deadlines.get(0).isBounded());
+        assertFalse(deadlines.get(0).isExpired());
+    }
+
+    @Test
+    public void cancel_refused_givesUpImmediately() {
+        // given
+        mockStatus(Scan.ScanStatus.QUEUED);
+
+        doThrow(new APIException("Error occurred during PUT", MockHttpResponse.create(409)))
+                .when(scanApi).submitScanAction(scanId, new ScanAction(ScanAction.Action.CANCEL));
+
+        // when
+        boolean cancelled = scanCanceller.cancel(scanId);
+
+        // then
+        assertFalse(cancelled);
+        verify(scanApi, times(1)).submitScanAction(eq(scanId), any());
+    }
+
+    @Test
+    public void cancel_statusUnknown_readAgain() {
+        // given
+        when(scanApi.getScan(scanId)).thenReturn(aScan().status(null).build())
+                                     .thenReturn(aScan().status(Scan.ScanStatus.RUNNING).build());
+
+        // when
+        boolean cancelled = scanCanceller.cancel(scanId);
+
+        // then
+        assertTrue(cancelled);
+        verify(scanApi, times(2)).getScan(scanId);
+        verify(scanApi, times(1)).submitScanAction(scanId, new ScanAction(ScanAction.Action.STOP));
+    }
+
+    @Test
+    public void cancel_retryAfterBeyondTimeout_givesUp() {
+        // given
+        mockStatus(Scan.ScanStatus.RUNNING);
+
+        HttpResponse response = MockHttpResponse.create(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.MILLISECONDS.toSeconds(ScanCanceller.TIMEOUT_MILLIS)));
+
+        doThrow(new APIException("Error occurred during PUT", response))
+                .when(scanApi).submitScanAction(eq(scanId), any());
+
+        // when
+        boolean cancelled = scanCanceller.cancel(scanId);
+
+        // then
+        assertFalse(cancelled);
+        verify(scanApi, times(1)).submitScanAction(eq(scanId), any());
+    }
+
+    @Test
+    public void cancel_alwaysRefused_givesUpAfterMaxAttempts() {
+        // given
+        mockStatus(Scan.ScanStatus.RUNNING);
+
+        doThrow(new APIException("Error occurred during PUT", MockHttpResponse.create(503)))
+                .when(scanApi).submitScanAction(eq(scanId), any());
+
+        // when
+        boolean cancelled = scanCanceller.cancel(scanId);
+
+        // then
+        assertFalse(cancelled);
+        verify(scanApi, times(ScanCanceller.MAX_ATTEMPTS)).submitScanAction(eq(scanId), any());
+        verify(logger, times(1)).log(eq("Failed to cancel scan with id: %s, it may need to be stopped manually: %s"), eq(scanId), any());
+    }
+
+    @Test
+    public void cancel_scanNotFound_givesUpImmediately() {
+        // given
+        when(scanApi.getScan(scanId)).thenThrow(new APIException("Error occurred during GET", MockHttpResponse.create(404)));
+
+        // when
+        boolean cancelled = scanCanceller.cancel(scanId);
+
+        // then
+        assertFalse(cancelled);
+        verify(scanApi, times(1)).getScan(scanId);
+    }
+
+    @Test
+    public void actionFor() {
+        assertEquals(Optional.of(ScanAction.Action.CANCEL), ScanCanceller.actionFor(Scan.ScanStatus.PENDING));
+        assertEquals(Optional.of(ScanAction.Action.CANCEL), ScanCanceller.actionFor(Scan.ScanStatus.QUEUED));
+        assertEquals(Optional.of(ScanAction.Action.STOP), ScanCanceller.actionFor(Scan.ScanStatus.PROVISIONING));
+        assertEquals(Optional.of(ScanAction.Action.STOP), ScanCanceller.actionFor(Scan.ScanStatus.PAUSED));
+        assertEquals(Optional.empty(), ScanCanceller.actionFor(Scan.ScanStatus.STOPPING));
+        assertEquals(Optional.empty(), ScanCanceller.actionFor(Scan.ScanStatus.FAILED));
+    }
+
+    // TEST HELPERS
+
+    private void mockStatus(Scan.ScanStatus status) {
+        when(scanApi.getScan(scanId)).thenReturn(aScan().status(status).build());
+    }
+
+}
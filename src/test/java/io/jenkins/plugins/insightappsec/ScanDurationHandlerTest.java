@@ -1,5 +1,6 @@
 package io.jenkins.plugins.insightappsec;
 
+import io.jenkins.plugins.insightappsec.api.Deadline;
 import io.jenkins.plugins.insightappsec.api.scan.Scan;
 import io.jenkins.plugins.insightappsec.api.scan.ScanAction;
 import io.jenkins.plugins.insightappsec.api.scan.ScanApi;
@@ -12,6 +13,7 @@ import org.mockito.MockedStatic;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
@@ -123,4 +125,74 @@ public class ScanDurationHandlerTest {
         verify(scanApi, times(1)).submitScanAction(scanId, new ScanAction(ScanAction.Action.STOP));
     }
 
+    // DEADLINE
+
+    @Test
+    public void test_newDeadline_scanCompleted_bothDurations() {
+        // when
+        Deadline deadline = ScanDurationHandler.newDeadline(BuildAdvanceIndicator.SCAN_COMPLETED,
+                                                            TimeUnit.MINUTES.toMillis(10),
+                                                            TimeUnit.MINUTES.toMillis(20),
+                                                            System.currentTimeMillis());
+
+        // then
+        Assert.assertTrue(deadline.isBounded());
+        Assert.assertTrue(deadline.remainingMillis() <= TimeUnit.MINUTES.toMillis(30) + ScanDurationHandler.DEADLINE_GRACE_MILLIS);
+        Assert.assertTrue(deadline.remainingMillis() > TimeUnit.MINUTES.toMillis(29) + ScanDurationHandler.DEADLINE_GRACE_MILLIS);
+    }
+
+    @Test
+    public void test_newDeadline_resumed_countsElapsedTime() {
+        // given - e.g. rebuilt once the controller restarted, 25 minutes into the step
+        long stepStartTimeMillis = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(25);
+
+        // when
+        Deadline deadline = ScanDurationHandler.newDeadline(BuildAdvanceIndicator.SCAN_COMPLETED,
+                                                            TimeUnit.MINUTES.toMillis(10),
+                                                            TimeUnit.MINUTES.toMillis(20),
+                                                            stepStartTimeMillis);
+
+        // then
+        Assert.assertTrue(deadline.isBounded());
+        Assert.assertTrue(deadline.remainingMillis() <= TimeUnit.MINUTES.toMillis(5) + ScanDurationHandler.DEADLINE_GRACE_MILLIS);
+        Assert.assertTrue(deadline.remainingMillis() > TimeUnit.MINUTES.toMillis(4) + ScanDurationHandler.DEADLINE_GRACE_MILLIS);
+    }
+
+    @Test
+    public void test_newDeadline_scanCompleted_noExecutionDuration() {
+        // when
+        Deadline deadline = ScanDurationHandler.newDeadline(BuildAdvanceIndicator.VULNERABILITY_QUERY,
+                                                            TimeUnit.MINUTES.toMillis(10),
+                                                            null,
+                                                            System.currentTimeMillis());
+
+        // then
+        Assert.assertFalse(deadline.isBounded());
+    }
+
+    @Test
+    public void test_newDeadline_scanStarted_pendingDurationOnly() {
+        // when
+        Deadline deadline = ScanDurationHandler.newDeadline(BuildAdvanceIndicator.SCAN_STARTED,
+                                                            TimeUnit.MINUTES.toMillis(10),
+                                                            null,
+                                                            System.currentTimeMillis());
+
+        // then
+        Assert.assertTrue(deadline.isBounded());
+        Assert.assertTrue(deadline.remainingMillis() <= TimeUnit.MINUTES.toMillis(10) + ScanDurationHandler.DEADLINE_GRACE_MILLIS);
+    }
+
+    @Test
+    public void test_newDeadline_scanSubmitted_unbounded() {
+        // when
+        Deadline deadline = ScanDurationHandler.newDeadline(BuildAdvanceIndicator.SCAN_SUBMITTED,
+                                                            TimeUnit.MINUTES.toMillis(10),
+                                                            TimeUnit.MINUTES.toMillis(20),
+                                                            System.currentTimeMillis());
+
+        // then
+        Assert.assertFalse(deadline.isBounded());
+    }
+
 }
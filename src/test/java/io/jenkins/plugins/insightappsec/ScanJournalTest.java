@@ -0,0 +1,95 @@
+package io.jenkins.plugins.insightappsec;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ScanJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void add_persistedAcrossRestart() throws Exception {
+        // given
+        File file = new File(folder.getRoot(), ScanJournal.FILE_NAME);
+        ScanJournal journal = new ScanJournal(file);
+
+        // when
+        journal.recorder("job/app#1", "cred-1", "US").record("scan-1");
+        journal.recorder("job/app#2", "cred-2", "EU").record("scan-2");
+
+        // then
+        List<ScanJournal.Entry> entries = new ScanJournal(file).getEntries();
+
+        assertEquals(List.of(new ScanJournal.Entry("scan-1", "job/app#1", "cred-1", "US", null),
+                             new ScanJournal.Entry("scan-2", "job/app#2", "cred-2", "EU", null)), entries);
+    }
+
+    @Test
+    public void remove_persistedAcrossRestart() {
+        // given
+        File file = new File(folder.getRoot(), ScanJournal.FILE_NAME);
+        ScanJournal journal = new ScanJournal(file);
+
+        ScanJournal.Recorder recorder = journal.recorder("job/app#1", "cred-1", "US");
+        recorder.record("scan-1");
+        recorder.record("scan-2");
+
+        // when
+        recorder.release("scan-1");
+
+        // then
+        assertEquals(List.of(new ScanJournal.Entry("scan-2", "job/app#1", "cred-1", "US", null)), new ScanJournal(file).getEntries());
+    }
+
+    @Test
+    public void getScanIds_onlyThoseOfTheStep() {
+        // given - parallel steps of one pipeline
+        ScanJournal journal = new ScanJournal(new File(folder.getRoot(), ScanJournal.FILE_NAME));
+
+        ScanJournal.Recorder build = journal.recorder("job/pipeline#1", "cred-1", "US");
+        build.forStep("step-1").record("scan-1");
+        build.forStep("step-2").record("scan-2");
+        journal.recorder("job/pipeline#2", "cred-1", "US").forStep("step-1").record("scan-3");
+
+        // when
+        List<String> scanIds = build.forStep("step-1").getScanIds();
+
+        // then
+        assertEquals(List.of("scan-1"), scanIds);
+    }
+
+    @Test
+    public void save_leavesNoTemporaryFiles() {
+        // given
+        ScanJournal journal = new ScanJournal(new File(folder.getRoot(), ScanJournal.FILE_NAME));
+
+        // when
+        journal.recorder("job/app#1", "cred-1", "US").record("scan-1");
+
+        // then
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void getEntries_corruptJournal_empty() throws Exception {
+        // given
+        File file = new File(folder.getRoot(), ScanJournal.FILE_NAME);
+        Files.writeString(file.toPath(), "[{\"scan_id\": ");
+
+        // when
+        List<ScanJournal.Entry> entries = new ScanJournal(file).getEntries();
+
+        // then
+        assertTrue(entries.isEmpty());
+    }
+
+}
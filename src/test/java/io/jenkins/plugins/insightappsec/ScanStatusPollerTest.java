@@ -0,0 +1,196 @@
+package io.jenkins.plugins.insightappsec;
+
+import io.jenkins.plugins.insightappsec.api.scan.Scan;
+import io.jenkins.plugins.insightappsec.api.scan.ScanApi;
+import io.jenkins.plugins.insightappsec.exception.APIException;
+import io.jenkins.plugins.insightappsec.exception.ScanFailureException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScanStatusPollerTest {
+
+    private static final long INTERVAL_MILLIS = 10_000;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private ScanStatusTracker tracker;
+
+    @Mock
+    private ScanStatusTracker otherTracker;
+
+    @Mock
+    private ScanApi scanApi;
+
+    @Mock
+    private ScanApi sharedScanApi;
+
+    private long now = 0;
+
+    private ScanStatusPoller poller;
+
+    @Before
+    public void setup() {
+        poller = new ScanStatusPoller(scheduler, Runnable::run, PollIntervalPolicy.fixed(INTERVAL_MILLIS), () -> now);
+    }
+
+    @Test
+    public void tick_pollsOnlyOnceIntervalHasElapsed() {
+        // given
+        CompletableFuture<Void> reached = poller.register(tracker);
+
+        // when
+        now = INTERVAL_MILLIS / 2;
+        poller.tick();
+
+        // then
+        verify(tracker, never()).poll();
+        assertFalse(reached.isDone());
+        assertEquals(1, poller.getRegisteredCount());
+    }
+
+    @Test
+    public void tick_desiredStatusReached() {
+        // given
+        mockScanApi(tracker);
+        when(tracker.poll()).thenReturn(false)
+                            .thenReturn(true);
+
+        CompletableFuture<Void> reached = poller.register(tracker);
+
+        // when
+        now = 2 * INTERVAL_MILLIS;
+        poller.tick();
+        now = 4 * INTERVAL_MILLIS;
+        poller.tick();
+
+        // then
+        verify(tracker, times(2)).poll();
+        assertTrue(reached.isDone());
+        assertEquals(0, poller.getRegisteredCount());
+    }
+
+    @Test
+    public void tick_pollFails() {
+        // given
+        mockScanApi(tracker);
+        ScanFailureException failure = new ScanFailureException(Scan.ScanStatus.FAILED);
+        when(tracker.poll()).thenThrow(failure);
+
+        CompletableFuture<Void> reached = poller.register(tracker);
+
+        // when
+        now = 2 * INTERVAL_MILLIS;
+        poller.tick();
+
+        // then
+        ExecutionException thrown = assertThrows(ExecutionException.class, reached::get);
+        assertSame(failure, thrown.getCause());
+        assertEquals(0, poller.getRegisteredCount());
+    }
+
+    @Test
+    public void tick_cancelledRegistrationIsNotPolled() {
+        // given
+        CompletableFuture<Void> reached = poller.register(tracker);
+
+        // when
+        reached.cancel(false);
+        now = 2 * INTERVAL_MILLIS;
+        poller.tick();
+
+        // then
+        verify(tracker, never()).poll();
+        assertEquals(0, poller.getRegisteredCount());
+    }
+
+    @Test
+    public void tick_batchesScansSharingRequestKey() {
+        // given
+        mockScanApi(tracker, otherTracker);
+        when(tracker.getScanId()).thenReturn("scan-1");
+        when(otherTracker.getScanId()).thenReturn("scan-2");
+
+        Scan scan = Scan.builder().id("scan-1").status(Scan.ScanStatus.RUNNING).build();
+        when(sharedScanApi.getScans(anyList())).thenReturn(Collections.singletonMap("scan-1", scan));
+        when(tracker.onScan(scan)).thenReturn(true);
+
+        CompletableFuture<Void> reached = poller.register(tracker);
+        CompletableFuture<Void> otherReached = poller.register(otherTracker);
+
+        // when
+        now = 2 * INTERVAL_MILLIS;
+        poller.tick();
+
+        // then
+        verify(sharedScanApi, times(1)).getScans(anyList());
+        verify(scanApi, never()).getScans(anyList()); // the first build's deadline must not bound the others
+        verify(tracker, never()).poll();
+        verify(otherTracker, times(1)).poll(); // not found by the search, looked up directly
+        assertTrue(reached.isDone());
+        assertFalse(otherReached.isDone());
+    }
+
+    @Test
+    public void tick_batchedLookupFails_fallsBackToDirectLookups() {
+        // given
+        mockScanApi(tracker, otherTracker);
+        when(tracker.getScanId()).thenReturn("scan-1");
+        when(otherTracker.getScanId()).thenReturn("scan-2");
+
+        APIException failure = new APIException();
+        when(sharedScanApi.getScans(anyList())).thenThrow(failure);
+        when(tracker.poll()).thenReturn(true);
+
+        CompletableFuture<Void> reached = poller.register(tracker);
+        CompletableFuture<Void> otherReached = poller.register(otherTracker);
+
+        // when
+        now = 2 * INTERVAL_MILLIS;
+        poller.tick();
+
+        // then
+        verify(tracker, times(1)).poll();
+        verify(otherTracker, times(1)).poll();
+        verify(tracker, never()).onPollFailure(failure);
+        verify(otherTracker, never()).onPollFailure(failure);
+        assertTrue(reached.isDone());
+        assertFalse(otherReached.isDone());
+        assertEquals(1, poller.getRegisteredCount());
+    }
+
+    // HELPERS
+
+    private void mockScanApi(ScanStatusTracker... trackers) {
+        when(scanApi.getRequestKey()).thenReturn("key");
+        if (trackers.length > 1) {
+            when(scanApi.shared()).thenReturn(sharedScanApi);
+        }
+
+        for (ScanStatusTracker t : trackers) {
+            when(t.getScanApi()).thenReturn(scanApi);
+        }
+    }
+
+}
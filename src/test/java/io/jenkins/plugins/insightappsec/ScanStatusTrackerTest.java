@@ -0,0 +1,114 @@
+package io.jenkins.plugins.insightappsec;
+
+import io.jenkins.plugins.insightappsec.api.scan.Scan;
+import io.jenkins.plugins.insightappsec.api.scan.ScanApi;
+import io.jenkins.plugins.insightappsec.exception.APIException;
+import io.jenkins.plugins.insightappsec.exception.CircuitBreakerOpenException;
+import io.jenkins.plugins.insightappsec.mock.MockHttpResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static io.jenkins.plugins.insightappsec.api.scan.ScanModels.aScan;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScanStatusTrackerTest {
+
+    @Mock
+    private ScanApi scanApi;
+
+    @Mock
+    private InsightAppSecLogger logger;
+
+    @Mock
+    private ScanDurationHandler scanDurationHandler;
+
+    private final String scanId = UUID.randomUUID().toString();
+
+    private long now = 0;
+
+    private ScanStatusTracker tracker;
+
+    @Before
+    public void setup() {
+        tracker = new ScanStatusTracker(scanId, Scan.ScanStatus.COMPLETE, scanApi, logger, scanDurationHandler, () -> now);
+    }
+
+    @Test
+    public void onPollFailure_nonRetryable_failsImmediately() {
+        for (int statusCode : new int[]{401, 403, 404}) {
+            // given
+            APIException failure = new APIException("Error occurred during GET", MockHttpResponse.create(statusCode));
+
+            // when
+            APIException thrown = assertThrows(APIException.class, () -> tracker.onPollFailure(failure));
+
+            // then
+            assertSame(failure, thrown);
+        }
+    }
+
+    @Test
+    public void onPollFailure_transient_withinBudget() {
+        // when
+        for (int i = 0; i < 100; i++) {
+            assertFalse(tracker.onPollFailure(new APIException("Error occurred during GET", MockHttpResponse.create(503))));
+        }
+
+        now += ScanStatusTracker.FAILURE_BUDGET_MILLIS;
+
+        // then
+        assertFalse(tracker.onPollFailure(new APIException()));
+    }
+
+    @Test
+    public void onPollFailure_transient_budgetSpent() {
+        // given
+        tracker.onPollFailure(new APIException());
+
+        // when
+        now += ScanStatusTracker.FAILURE_BUDGET_MILLIS + 1;
+
+        // then
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> tracker.onPollFailure(new APIException()));
+        assertTrue(thrown.getMessage().contains("Scan polling has failed 2 times over 300 seconds, aborting"));
+    }
+
+    @Test
+    public void onPollFailure_successResetsBudget() {
+        // given
+        tracker.onPollFailure(new APIException());
+        now += ScanStatusTracker.FAILURE_BUDGET_MILLIS;
+
+        // when
+        tracker.onScan(aScan().status(Scan.ScanStatus.RUNNING).build());
+        tracker.onPollFailure(new APIException());
+        now += TimeUnit.MINUTES.toMillis(1);
+
+        // then
+        assertFalse(tracker.onPollFailure(new APIException()));
+    }
+
+    @Test
+    public void onPollFailure_circuitBreakerOpen_budgetNotSpent() {
+        // given
+        tracker.onPollFailure(new APIException());
+
+        // when
+        now += ScanStatusTracker.FAILURE_BUDGET_MILLIS * 2;
+        tracker.onPollFailure(new CircuitBreakerOpenException("us.api.insight.rapid7.com"));
+
+        // then
+        assertFalse(tracker.onPollFailure(new APIException()));
+    }
+
+}
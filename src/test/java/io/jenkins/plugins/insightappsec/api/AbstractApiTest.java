@@ -3,21 +3,27 @@ package io.jenkins.plugins.insightappsec.api;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import io.jenkins.plugins.insightappsec.MappingConfiguration;
 import io.jenkins.plugins.insightappsec.exception.APIException;
+import io.jenkins.plugins.insightappsec.exception.CircuitBreakerOpenException;
+import io.jenkins.plugins.insightappsec.exception.DeadlineExceededException;
+import io.jenkins.plugins.insightappsec.exception.LimiterTimeoutException;
 import io.jenkins.plugins.insightappsec.mock.MockHttpResponse;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.Header;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.BasicHttpEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.util.EntityUtils;
@@ -28,18 +34,31 @@ import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static io.jenkins.plugins.insightappsec.api.search.PageModels.aMetadata;
 import static io.jenkins.plugins.insightappsec.api.search.PageModels.aPageOf;
 import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
 import static org.hamcrest.Matchers.isA;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
@@ -185,6 +204,112 @@ public class AbstractApiTest {
         verifyResponseCleanup(1);
     }
 
+    @Test
+    public void postForAll_multiPage_concurrent() throws Exception {
+        // given
+        Page<Body> page0 = aPageOf(() -> new Body("0"), 50).metadata(aMetadata().index(0).totalPages(4).build()).build();
+        Page<Body> page1 = aPageOf(() -> new Body("1"), 50).metadata(aMetadata().index(1).totalPages(4).build()).build();
+        Page<Body> page2 = aPageOf(() -> new Body("2"), 50).metadata(aMetadata().index(2).totalPages(4).build()).build();
+        Page<Body> page3 = aPageOf(() -> new Body("3"), 10).metadata(aMetadata().index(3).totalPages(4).build()).build();
+
+        doReturn(MockHttpResponse.create(200, page0)).when(client).execute(argThat((req) -> "size=1000&index=0".equals(req.getURI().getQuery())));
+        doReturn(MockHttpResponse.create(200, page1)).when(client).execute(argThat((req) -> "size=1000&index=1".equals(req.getURI().getQuery())));
+        doReturn(MockHttpResponse.create(200, page2)).when(client).execute(argThat((req) -> "size=1000&index=2".equals(req.getURI().getQuery())));
+        doReturn(MockHttpResponse.create(200, page3)).when(client).execute(argThat((req) -> "size=1000&index=3".equals(req.getURI().getQuery())));
+
+        // when
+        TestApi testApi = new TestApi(client, ApiOptions.builder().pageConcurrency(3).build());
+        List<Body> allResults = testApi.postForAll(PATH, Body.class, BODY);
+
+        // then
+        List<Body> expected = new ArrayList<>(page0.getData());
+        expected.addAll(page1.getData());
+        expected.addAll(page2.getData());
+        expected.addAll(page3.getData());
+
+        assertEquals(expected, allResults);
+        verify(client, times(4)).execute(any(HttpPost.class));
+    }
+
+    @Test
+    public void postForAll_multiPage_concurrent_pageFails() throws Exception {
+        // given
+        Page<Body> page0 = aPageOf(() -> BODY, 50).metadata(aMetadata().index(0).totalPages(3).build()).build();
+        Page<Body> page1 = aPageOf(() -> BODY, 50).metadata(aMetadata().index(1).totalPages(3).build()).build();
+
+        doReturn(MockHttpResponse.create(200, page0)).when(client).execute(argThat((req) -> "size=1000&index=0".equals(req.getURI().getQuery())));
+        doReturn(MockHttpResponse.create(200, page1)).when(client).execute(argThat((req) -> "size=1000&index=1".equals(req.getURI().getQuery())));
+        doReturn(MockHttpResponse.create(500)).when(client).execute(argThat((req) -> "size=1000&index=2".equals(req.getURI().getQuery())));
+
+        // when
+        TestApi testApi = new TestApi(client, ApiOptions.builder().pageConcurrency(2).build());
+        APIException thrown = Assert.assertThrows(APIException.class, () ->
+            testApi.postForAll(PATH, Body.class, BODY)
+        );
+
+        // then
+        Assert.assertTrue(thrown.getMessage().contains(format("Error occurred during retrieval of page of [%s]", Body.class.getSimpleName())));
+    }
+
+    @Test
+    public void postForStream_multiPage() throws Exception {
+        // given
+        Page<Body> page0 = aPageOf(() -> BODY, 50).metadata(aMetadata().index(0).totalPages(3).build()).build();
+        Page<Body> page1 = aPageOf(() -> BODY, 50).metadata(aMetadata().index(1).totalPages(3).build()).build();
+        Page<Body> page2 = aPageOf(() -> BODY, 10).metadata(aMetadata().index(2).totalPages(3).build()).build();
+
+        doReturn(MockHttpResponse.create(200, page0)).when(client).execute(argThat((req) -> "size=1000&index=0".equals(req.getURI().getQuery())));
+        doReturn(MockHttpResponse.create(200, page1)).when(client).execute(argThat((req) -> "size=1000&index=1".equals(req.getURI().getQuery())));
+        doReturn(MockHttpResponse.create(200, page2)).when(client).execute(argThat((req) -> "size=1000&index=2".equals(req.getURI().getQuery())));
+
+        // when
+        TestApi testApi = new TestApi(client);
+        List<Body> allResults = testApi.postForStream(PATH, Body.class, BODY).collect(toList());
+
+        // then
+        List<Body> expected = new ArrayList<>(page0.getData());
+        expected.addAll(page1.getData());
+        expected.addAll(page2.getData());
+
+        assertEquals(expected, allResults);
+    }
+
+    @Test
+    public void postForStream_retrievesPagesOnDemand() throws Exception {
+        // given
+        Page<Body> page0 = aPageOf(() -> BODY, 50).metadata(aMetadata().index(0).totalPages(3).build()).build();
+        Page<Body> page1 = aPageOf(() -> BODY, 50).metadata(aMetadata().index(1).totalPages(3).build()).build();
+
+        doReturn(MockHttpResponse.create(200, page0)).when(client).execute(argThat((req) -> "size=1000&index=0".equals(req.getURI().getQuery())));
+        doReturn(MockHttpResponse.create(200, page1)).when(client).execute(argThat((req) -> "size=1000&index=1".equals(req.getURI().getQuery())));
+
+        // when
+        TestApi testApi = new TestApi(client);
+        Stream<Body> stream = testApi.postForStream(PATH, Body.class, BODY);
+
+        // then
+        verify(client, times(0)).execute(any(HttpPost.class));
+
+        assertEquals(60, stream.limit(60).count());
+        verify(client, times(2)).execute(any(HttpPost.class));
+    }
+
+    @Test
+    public void postForStream_zeroResults() throws Exception {
+        // given
+        Page<Body> page0 = aPageOf(() -> BODY, 0).metadata(aMetadata().index(0).totalPages(0).build()).build();
+
+        doReturn(MockHttpResponse.create(200, page0)).when(client).execute(argThat((req) -> "size=1000&index=0".equals(req.getURI().getQuery())));
+
+        // when
+        TestApi testApi = new TestApi(client);
+        Optional<Body> first = testApi.postForStream(PATH, Body.class, BODY).findFirst();
+
+        // then
+        assertFalse(first.isPresent());
+        verify(client, times(1)).execute(any(HttpPost.class));
+    }
+
     // PUT
 
     @Test
@@ -264,6 +389,26 @@ public class AbstractApiTest {
         verifyResponseCleanup(1);
     }
 
+    @Test
+    public void getById_200Response_utf8Content() throws Exception {
+        // given
+        Body utf8Body = new Body("résumé – 履歴書");
+
+        HttpResponse response = MockHttpResponse.create(200);
+        BasicHttpEntity entity = new BasicHttpEntity();
+        entity.setContent(new ByteArrayInputStream(MappingConfiguration.OBJECT_MAPPER_INSTANCE.writeValueAsBytes(utf8Body)));
+        response.setEntity(entity);
+
+        given(client.execute(any(HttpGet.class))).willReturn(response);
+
+        // when
+        TestApi testApi = new TestApi(client);
+        Body body = testApi.getById(PATH, ID, Body.class);
+
+        // then
+        assertEquals(utf8Body, body);
+    }
+
     @Test
     public void getById_non200Response() throws Exception {
         // given
@@ -368,8 +513,593 @@ public class AbstractApiTest {
         verifyResponseCleanup(1);
     }
 
+    // RETRY
+
+    @Test
+    public void getById_503ThenOk_retries() throws Exception {
+        // given
+        given(client.execute(any(HttpGet.class))).willReturn(MockHttpResponse.create(503))
+                                                  .willReturn(MockHttpResponse.create(200, BODY));
+
+        ApiMetrics metrics = new ApiMetrics();
+
+        // when
+        TestApi testApi = new TestApi(client, retryOptions(metrics));
+        Body body = testApi.getById(PATH, ID, Body.class);
+
+        // then
+        assertEquals(BODY, body);
+        verify(client, times(2)).execute(any(HttpGet.class));
+        assertEquals(2, metrics.getRequests());
+        assertEquals(1, metrics.getRetries());
+    }
+
+    @Test
+    public void put_503Response_retriesExhausted() throws Exception {
+        // given
+        given(client.execute(any(HttpPut.class))).willAnswer(invocation -> MockHttpResponse.create(503));
+
+        ApiMetrics metrics = new ApiMetrics();
+
+        // when
+        TestApi testApi = new TestApi(client, retryOptions(metrics));
+        Assert.assertThrows(APIException.class, () -> testApi.put(PATH, BODY));
+
+        // then
+        verify(client, times(4)).execute(any(HttpPut.class));
+        assertEquals(3, metrics.getRetries());
+        assertEquals(1, metrics.getRetriesExhausted());
+    }
+
+    @Test
+    public void post_503Response_notRetried() throws Exception {
+        // given
+        given(client.execute(any(HttpPost.class))).willReturn(MockHttpResponse.create(503));
+
+        ApiMetrics metrics = new ApiMetrics();
+
+        // when
+        TestApi testApi = new TestApi(client, retryOptions(metrics));
+        Assert.assertThrows(APIException.class, () -> testApi.post(PATH, BODY));
+
+        // then
+        verify(client, times(1)).execute(any(HttpPost.class));
+        assertEquals(0, metrics.getRetries());
+    }
+
+    // CIRCUIT BREAKER
+
+    @Test
+    public void getById_circuitBreakerOpen_shortCircuits() throws Exception {
+        // given
+        given(client.execute(any(HttpGet.class))).willAnswer(invocation -> MockHttpResponse.create(500));
+
+        CircuitBreaker circuitBreaker = new CircuitBreaker(HOST, 50);
+        ApiOptions options = ApiOptions.builder()
+                                       .retryPolicy(RetryPolicy.NONE)
+                                       .circuitBreaker(circuitBreaker)
+                                       .build();
+
+        TestApi testApi = new TestApi(client, options);
+
+        for (int i = 0; i < CircuitBreaker.MIN_CALLS; i++) {
+            Assert.assertThrows(APIException.class, () -> testApi.getById(PATH, ID, Body.class));
+        }
+
+        // when
+        Assert.assertThrows(CircuitBreakerOpenException.class, () -> testApi.getById(PATH, ID, Body.class));
+
+        // then
+        verify(client, times(CircuitBreaker.MIN_CALLS)).execute(any(HttpGet.class));
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    // LIMITER
+
+    @Test
+    public void getById_readTimeout_limitReduced() throws Exception {
+        // given
+        given(client.execute(any(HttpGet.class))).willThrow(new SocketTimeoutException("Read timed out"));
+
+        AdaptiveLimiter limiter = new AdaptiveLimiter(HOST);
+        ApiOptions options = ApiOptions.builder()
+                                       .retryPolicy(RetryPolicy.NONE)
+                                       .limiter(limiter)
+                                       .build();
+
+        // when
+        TestApi testApi = new TestApi(client, options);
+        Assert.assertThrows(APIException.class, () -> testApi.getById(PATH, ID, Body.class));
+
+        // then
+        assertEquals(AdaptiveLimiter.INITIAL_LIMIT / 2, limiter.getLimit());
+    }
+
+    @Test
+    public void getById_otherIOException_limitKept() throws Exception {
+        // given
+        given(client.execute(any(HttpGet.class))).willThrow(new IOException("Connection reset"));
+
+        AdaptiveLimiter limiter = new AdaptiveLimiter(HOST);
+        ApiOptions options = ApiOptions.builder()
+                                       .retryPolicy(RetryPolicy.NONE)
+                                       .limiter(limiter)
+                                       .build();
+
+        // when
+        TestApi testApi = new TestApi(client, options);
+        Assert.assertThrows(APIException.class, () -> testApi.getById(PATH, ID, Body.class));
+
+        // then
+        assertEquals(AdaptiveLimiter.INITIAL_LIMIT, limiter.getLimit());
+    }
+
+    @Test
+    public void getById_limiterFull_timesOut() throws Exception {
+        // given
+        AdaptiveLimiter limiter = new AdaptiveLimiter(HOST);
+        for (int i = 0; i < AdaptiveLimiter.INITIAL_LIMIT; i++) {
+            assertTrue(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+        }
+
+        ApiOptions options = ApiOptions.builder()
+                                       .limiter(limiter)
+                                       .limiterTimeoutMillis(50)
+                                       .build();
+
+        // when
+        TestApi testApi = new TestApi(client, options);
+        Assert.assertThrows(LimiterTimeoutException.class, () -> testApi.getById(PATH, ID, Body.class));
+
+        // then
+        verify(client, times(0)).execute(any(HttpGet.class));
+        assertEquals(AdaptiveLimiter.INITIAL_LIMIT, limiter.getInFlight());
+    }
+
+    // COMPRESSION
+
+    @Test
+    public void postForAll_bodyAboveThreshold_compressed() throws Exception {
+        // given
+        Page<Body> page0 = aPageOf(() -> BODY, 1).metadata(aMetadata().index(0).totalPages(1).build()).build();
+        given(client.execute(any(HttpPost.class))).willReturn(MockHttpResponse.create(200, page0));
+
+        ApiOptions options = ApiOptions.builder().requestCompressionThreshold(1).build();
+
+        // when
+        TestApi testApi = new TestApi(client, options);
+        testApi.postForAll(PATH, Body.class, BODY);
+
+        // then
+        verify(client).execute(argThat(req -> {
+            HttpEntity entity = ((HttpEntityEnclosingRequestBase) req).getEntity();
+            return "gzip".equals(entity.getContentEncoding().getValue()) && expectedBody().equals(gunzip(entity));
+        }));
+    }
+
+    @Test
+    public void postForAll_bodyBelowThreshold_notCompressed() throws Exception {
+        // given
+        Page<Body> page0 = aPageOf(() -> BODY, 1).metadata(aMetadata().index(0).totalPages(1).build()).build();
+        given(client.execute(any(HttpPost.class))).willReturn(MockHttpResponse.create(200, page0));
+
+        ApiOptions options = ApiOptions.builder().requestCompressionThreshold(expectedBody().length()).build();
+
+        // when
+        TestApi testApi = new TestApi(client, options);
+        testApi.postForAll(PATH, Body.class, BODY);
+
+        // then
+        verify(client).execute(argThat(req -> ((HttpEntityEnclosingRequestBase) req).getEntity().getContentEncoding() == null &&
+                                              expectedBody().equals(getBody((HttpEntityEnclosingRequestBase) req))));
+    }
+
+    @Test
+    public void post_bodyAboveThreshold_notCompressed() throws Exception {
+        // given
+        given(client.execute(any(HttpPost.class))).willReturn(MockHttpResponse.create(201, locationHeader()));
+
+        ApiOptions options = ApiOptions.builder().requestCompressionThreshold(1).build();
+
+        // when
+        TestApi testApi = new TestApi(client, options);
+        testApi.post(PATH, BODY);
+
+        // then
+        verifyRequestContent();
+    }
+
+    // PAGE SIZE
+
+    @Test
+    public void postForAll_fixedPageSize() throws Exception {
+        // given
+        Page<Body> page0 = aPageOf(() -> BODY, 50).metadata(aMetadata().index(0).totalPages(1).build()).build();
+
+        given(client.execute(argThat((req) -> "size=50&index=0".equals(req.getURI().getQuery()))))
+                .willReturn(MockHttpResponse.create(200, page0));
+
+        // when
+        TestApi testApi = new TestApi(client);
+        List<Body> allResults = testApi.postForAll(PATH, Body.class, BODY, PageSize.fixed(50));
+
+        // then
+        assertEquals(page0.getData(), allResults);
+    }
+
+    @Test
+    public void postForAll_adaptivePageSize_sameSizeForAllPagesThenShrinks() throws Exception {
+        // given
+        int initialSize = PageSize.INITIAL_ADAPTIVE_SIZE;
+        Page<Body> page0 = aPageOf(() -> BODY, initialSize).metadata(aMetadata().index(0).totalPages(2).build()).build();
+        Page<Body> page1 = aPageOf(() -> BODY, initialSize).metadata(aMetadata().index(1).totalPages(2).build()).build();
+
+        doReturn(MockHttpResponse.create(200, page0)).when(client).execute(argThat((req) -> format("size=%s&index=0", initialSize).equals(req.getURI().getQuery())));
+        doReturn(MockHttpResponse.create(200, page1)).when(client).execute(argThat((req) -> format("size=%s&index=1", initialSize).equals(req.getURI().getQuery())));
+
+        // large items for the target, so the next collection uses smaller pages
+        PageSizes pageSizes = new PageSizes(1024);
+        ApiOptions options = ApiOptions.builder().pageSizes(pageSizes).build();
+
+        // when
+        TestApi testApi = new TestApi(client, options);
+        List<Body> allResults = testApi.postForAll(PATH, Body.class, BODY);
+
+        // then
+        assertEquals(initialSize * 2, allResults.size());
+        assertTrue(pageSizes.get(Body.class).get() < initialSize);
+    }
+
+    // CACHE
+
+    @Test
+    public void getById_304Response_servesCached() throws Exception {
+        // given
+        HttpResponse first = MockHttpResponse.create(200, BODY);
+        first.setHeader(HttpHeaders.ETAG, "\"v1\"");
+        given(client.execute(any(HttpGet.class))).willReturn(first)
+                                                  .willReturn(MockHttpResponse.create(304));
+
+        ApiMetrics metrics = new ApiMetrics();
+        TestApi testApi = new TestApi(client, cacheOptions(metrics));
+
+        // when
+        Body cached = testApi.getById(PATH, ID, Body.class);
+        Body revalidated = testApi.getById(PATH, ID, Body.class);
+
+        // then
+        assertEquals(cached, revalidated);
+        verify(client).execute(argThat(req -> req.containsHeader(HttpHeaders.IF_NONE_MATCH) &&
+                                              "\"v1\"".equals(req.getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue())));
+        assertEquals(1, metrics.getCacheHits());
+        assertEquals(1, metrics.getCacheMisses());
+    }
+
+    @Test
+    public void getById_304Response_callerCannotChangeCached() throws Exception {
+        // given
+        HttpResponse first = MockHttpResponse.create(200, BODY);
+        first.setHeader(HttpHeaders.ETAG, "\"v1\"");
+        given(client.execute(any(HttpGet.class))).willReturn(first)
+                                                  .willReturn(MockHttpResponse.create(304));
+
+        TestApi testApi = new TestApi(client, cacheOptions(new ApiMetrics()));
+
+        // when - e.g. one build changing the scan it was given
+        Body cached = testApi.getById(PATH, ID, Body.class);
+        cached.setTest("changed");
+
+        Body revalidated = testApi.getById(PATH, ID, Body.class);
+
+        // then
+        assertNotSame(cached, revalidated);
+        assertEquals(BODY, revalidated);
+    }
+
+    @Test
+    public void getById_unchangedBodyWithoutValidators_servedFromCache() throws Exception {
+        // given
+        given(client.execute(any(HttpGet.class))).willReturn(MockHttpResponse.create(200, BODY))
+                                                  .willReturn(MockHttpResponse.create(200, BODY));
+
+        ApiMetrics metrics = new ApiMetrics();
+        TestApi testApi = new TestApi(client, cacheOptions(metrics));
+
+        // when
+        Body first = testApi.getById(PATH, ID, Body.class);
+        Body second = testApi.getById(PATH, ID, Body.class);
+
+        // then
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        verify(client, times(0)).execute(argThat(req -> req.containsHeader(HttpHeaders.IF_NONE_MATCH) ||
+                                                        req.containsHeader(HttpHeaders.IF_MODIFIED_SINCE)));
+        assertEquals(1, metrics.getCacheHits());
+        assertEquals(50, metrics.getCacheHitRatio());
+    }
+
+    @Test
+    public void getById_changedBody_mappedAgain() throws Exception {
+        // given
+        Body changed = new Body("changed");
+        given(client.execute(any(HttpGet.class))).willReturn(MockHttpResponse.create(200, BODY))
+                                                  .willReturn(MockHttpResponse.create(200, changed));
+
+        ApiMetrics metrics = new ApiMetrics();
+        TestApi testApi = new TestApi(client, cacheOptions(metrics));
+
+        // when
+        testApi.getById(PATH, ID, Body.class);
+        Body second = testApi.getById(PATH, ID, Body.class);
+
+        // then
+        assertEquals(changed, second);
+        assertEquals(0, metrics.getCacheHits());
+        assertEquals(2, metrics.getCacheMisses());
+    }
+
+    // DEADLINE
+
+    @Test
+    public void getById_timeoutsApplied() throws Exception {
+        // given
+        given(client.execute(any(HttpGet.class))).willReturn(MockHttpResponse.create(200, BODY));
+
+        ApiOptions options = ApiOptions.builder()
+                                       .connectTimeoutMillis(1000)
+                                       .socketTimeoutMillis(2000)
+                                       .connectionRequestTimeoutMillis(3000)
+                                       .build();
+
+        // when
+        new TestApi(client, options).getById(PATH, ID, Body.class);
+
+        // then
+        verify(client).execute(argThat(req -> {
+            RequestConfig config = ((HttpGet) req).getConfig();
+            return config.getConnectTimeout() == 1000
+                    && config.getSocketTimeout() == 2000
+                    && config.getConnectionRequestTimeout() == 3000;
+        }));
+    }
+
+    @Test
+    public void getById_timeoutsCappedToDeadline() throws Exception {
+        // given
+        given(client.execute(any(HttpGet.class))).willReturn(MockHttpResponse.create(200, BODY));
+
+        ApiOptions options = ApiOptions.builder()
+                                       .socketTimeoutMillis((int) TimeUnit.MINUTES.toMillis(1))
+                                       .deadline(Deadline.after(5, TimeUnit.SECONDS))
+                                       .build();
+
+        // when
+        new TestApi(client, options).getById(PATH, ID, Body.class);
+
+        // then
+        verify(client).execute(argThat(req -> {
+            int socketTimeout = ((HttpGet) req).getConfig().getSocketTimeout();
+            return socketTimeout > 0 && socketTimeout <= TimeUnit.SECONDS.toMillis(5);
+        }));
+    }
+
+    @Test
+    public void getById_deadlinePassed_notSent() throws Exception {
+        // given
+        Deadline deadline = Deadline.unbounded();
+        deadline.cancel();
+
+        ApiOptions options = ApiOptions.builder().deadline(deadline).build();
+
+        // when
+        TestApi testApi = new TestApi(client, options);
+        Assert.assertThrows(DeadlineExceededException.class, () -> testApi.getById(PATH, ID, Body.class));
+
+        // then
+        verify(client, times(0)).execute(any(HttpGet.class));
+    }
+
+    @Test
+    public void getById_deadlinePassedDuringRequest_notRetried() throws Exception {
+        // given
+        Deadline deadline = Deadline.unbounded();
+        given(client.execute(any(HttpGet.class))).willAnswer(invocation -> {
+            deadline.cancel();
+            throw new IOException("Request aborted");
+        });
+
+        ApiOptions options = ApiOptions.builder()
+                                       .retryPolicy(RetryPolicy.builder().baseDelayMillis(1).build())
+                                       .metrics(new ApiMetrics())
+                                       .deadline(deadline)
+                                       .build();
+
+        // when
+        TestApi testApi = new TestApi(client, options);
+        DeadlineExceededException thrown = Assert.assertThrows(DeadlineExceededException.class, () -> testApi.getById(PATH, ID, Body.class));
+
+        // then
+        assertTrue(thrown.getCause() instanceof IOException);
+        assertEquals(0, options.getMetrics().getRetries());
+        verify(client, times(1)).execute(any(HttpGet.class));
+    }
+
+    @Test
+    public void getById_retryBeyondDeadline_notAttempted() throws Exception {
+        // given
+        given(client.execute(any(HttpGet.class))).willAnswer(invocation -> {
+            HttpResponse response = MockHttpResponse.create(503);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "30");
+            return response;
+        });
+
+        ApiOptions options = ApiOptions.builder()
+                                       .deadline(Deadline.after(5, TimeUnit.SECONDS))
+                                       .build();
+
+        // when
+        TestApi testApi = new TestApi(client, options);
+        Assert.assertThrows(DeadlineExceededException.class, () -> testApi.getById(PATH, ID, Body.class));
+
+        // then
+        verify(client, times(1)).execute(any(HttpGet.class));
+    }
+
+    // HEDGING
+
+    @Test
+    public void getById_slowResponse_hedged() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        given(client.execute(any(HttpGet.class))).willAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(2));
+            }
+            return MockHttpResponse.create(200, BODY);
+        });
+
+        ApiOptions options = hedgeOptions(new ApiMetrics());
+
+        // when
+        long start = System.nanoTime();
+        Body body = new TestApi(client, options).getById(PATH, ID, Body.class);
+
+        // then
+        assertEquals(BODY, body);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, options.getMetrics().getHedges());
+        assertEquals(1, options.getMetrics().getHedgeWins());
+        verify(client, times(2)).execute(any(HttpGet.class));
+    }
+
+    @Test
+    public void getById_fastResponse_notHedged() throws Exception {
+        // given
+        given(client.execute(any(HttpGet.class))).willReturn(MockHttpResponse.create(200, BODY));
+
+        ApiOptions options = hedgeOptions(new ApiMetrics());
+
+        // when
+        Body body = new TestApi(client, options).getById(PATH, ID, Body.class);
+
+        // then
+        assertEquals(BODY, body);
+        assertEquals(0, options.getMetrics().getHedges());
+        verify(client, times(1)).execute(any(HttpGet.class));
+    }
+
+    @Test
+    public void getById_hedgeBudgetSpent_waits() throws Exception {
+        // given
+        given(client.execute(any(HttpGet.class))).willAnswer(invocation -> {
+            Thread.sleep(200);
+            return MockHttpResponse.create(200, BODY);
+        });
+
+        HedgePolicy hedgePolicy = new HedgePolicy(0);
+        recordLatencies(hedgePolicy);
+
+        ApiOptions options = ApiOptions.builder()
+                                       .metrics(new ApiMetrics())
+                                       .hedgePolicy(hedgePolicy)
+                                       .build();
+
+        // when
+        Body body = new TestApi(client, options).getById(PATH, ID, Body.class);
+
+        // then
+        assertEquals(BODY, body);
+        assertEquals(0, options.getMetrics().getHedges());
+        verify(client, times(1)).execute(any(HttpGet.class));
+    }
+
+    @Test
+    public void getById_hedged_bothFail() throws Exception {
+        // given
+        given(client.execute(any(HttpGet.class))).willAnswer(invocation -> {
+            Thread.sleep(200);
+            throw new IOException("failed");
+        });
+
+        ApiOptions options = hedgeOptions(new ApiMetrics()).toBuilder()
+                                                           .retryPolicy(RetryPolicy.NONE)
+                                                           .build();
+
+        // when
+        APIException thrown = Assert.assertThrows(APIException.class, () -> new TestApi(client, options).getById(PATH, ID, Body.class));
+
+        // then
+        assertTrue(thrown.getCause() instanceof IOException);
+        assertEquals(1, options.getMetrics().getHedges());
+        verify(client, times(2)).execute(any(HttpGet.class));
+    }
+
+    @Test
+    public void getById_retried_recordsOnlySuccessfulSendLatency() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        given(client.execute(any(HttpGet.class))).willAnswer(invocation -> {
+            if (calls.incrementAndGet() % 2 == 1) {
+                Thread.sleep(200);
+                throw new IOException("failed");
+            }
+            return MockHttpResponse.create(200, BODY);
+        });
+
+        // two short of hedging, so both lookups below are timed and together make up the 95th percentile
+        HedgePolicy hedgePolicy = new HedgePolicy(100);
+        for (int i = 0; i < HedgePolicy.MIN_SAMPLES - 2; i++) {
+            hedgePolicy.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        ApiOptions options = retryOptions(new ApiMetrics()).toBuilder()
+                                                          .hedgePolicy(hedgePolicy)
+                                                          .build();
+        TestApi testApi = new TestApi(client, options);
+
+        // when
+        testApi.getById(PATH, ID, Body.class);
+        testApi.getById(PATH, ID, Body.class);
+
+        // then
+        assertEquals(HedgePolicy.MIN_DELAY_MILLIS, hedgePolicy.getDelayMillis());
+    }
+
     // TEST HELPERS
 
+    /**
+     * @return options hedging GETs not answered within the min delay, without limiting the number of hedges.
+     */
+    private ApiOptions hedgeOptions(ApiMetrics metrics) {
+        HedgePolicy hedgePolicy = new HedgePolicy(100);
+        recordLatencies(hedgePolicy);
+
+        return ApiOptions.builder()
+                         .metrics(metrics)
+                         .hedgePolicy(hedgePolicy)
+                         .build();
+    }
+
+    private void recordLatencies(HedgePolicy hedgePolicy) {
+        for (int i = 0; i < HedgePolicy.MIN_SAMPLES; i++) {
+            hedgePolicy.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private ApiOptions retryOptions(ApiMetrics metrics) {
+        return ApiOptions.builder()
+                         .retryPolicy(RetryPolicy.builder().baseDelayMillis(1).build())
+                         .metrics(metrics)
+                         .build();
+    }
+
+    private ApiOptions cacheOptions(ApiMetrics metrics) {
+        return ApiOptions.builder()
+                         .responseCache(new ResponseCache(ResponseCache.DEFAULT_MAX_ENTRIES))
+                         .metrics(metrics)
+                         .build();
+    }
+
     private void verifyResponseCleanup(int numberOfInvocations) throws Exception {
         // EntityUtils verification removed - tests now work without static mocking
         EntityUtils.consume(any());
@@ -397,6 +1127,14 @@ public class AbstractApiTest {
         verify(client).execute(argThat(((request) -> ContentType.APPLICATION_JSON.toString().equals(getContentType((HttpEntityEnclosingRequestBase) request)))));
     }
 
+    private String gunzip(HttpEntity entity) {
+        try (GZIPInputStream content = new GZIPInputStream(entity.getContent())) {
+            return IOUtils.toString(content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private String getContentType(HttpEntityEnclosingRequestBase post) {
         return post.getEntity().getContentType().getValue();
     }
@@ -446,6 +1184,11 @@ public class AbstractApiTest {
             super(client, HOST, API_KEY);
         }
 
+        private TestApi(HttpClient client,
+                        ApiOptions options) {
+            super(client, HOST, API_KEY, options);
+        }
+
     }
 
     @Data
@@ -0,0 +1,133 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveLimiterTest {
+
+    private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AdaptiveLimiter limiter = new AdaptiveLimiter("US/credentials");
+
+    @Test
+    public void release_flatLatencyIncreasesLimit() throws Exception {
+        // when
+        for (int i = 0; i < 100; i++) {
+            acquire();
+            limiter.release(LATENCY, false);
+        }
+
+        // then
+        assertTrue(limiter.getLimit() > AdaptiveLimiter.INITIAL_LIMIT);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void release_overloadHalvesLimit() throws Exception {
+        // when
+        acquire();
+        limiter.release(LATENCY, true);
+
+        // then
+        assertEquals(AdaptiveLimiter.INITIAL_LIMIT / 2, limiter.getLimit());
+    }
+
+    @Test
+    public void release_overloadNeverBelowMin() throws Exception {
+        // when
+        for (int i = 0; i < 20; i++) {
+            acquire();
+            limiter.release(LATENCY, true);
+        }
+
+        // then
+        assertEquals(AdaptiveLimiter.MIN_LIMIT, limiter.getLimit());
+    }
+
+    @Test
+    public void release_latencySpikeDecreasesLimit() throws Exception {
+        // given
+        for (int i = 0; i < 20; i++) {
+            acquire();
+            limiter.release(LATENCY, false);
+        }
+        int limit = limiter.getLimit();
+
+        // when
+        acquire();
+        limiter.release(LATENCY * 10, false);
+
+        // then
+        assertTrue(limiter.getLimit() < limit);
+    }
+
+    @Test
+    public void tryAcquire_waitsAtLimit() throws Exception {
+        // given
+        for (int i = 0; i < AdaptiveLimiter.INITIAL_LIMIT; i++) {
+            acquire();
+        }
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                if (limiter.tryAcquire(5, TimeUnit.SECONDS)) {
+                    acquired.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // when
+        waiter.start();
+
+        // then
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        assertEquals(1, limiter.getQueued());
+
+        limiter.release(LATENCY, false);
+
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    public void tryAcquire_atLimit_timesOut() throws Exception {
+        // given
+        for (int i = 0; i < AdaptiveLimiter.INITIAL_LIMIT; i++) {
+            acquire();
+        }
+
+        // when
+        boolean acquired = limiter.tryAcquire(50, TimeUnit.MILLISECONDS);
+
+        // then
+        assertFalse(acquired);
+        assertEquals(AdaptiveLimiter.INITIAL_LIMIT, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    public void tryAcquire_belowLimit_acquires() throws Exception {
+        // when
+        boolean acquired = limiter.tryAcquire(0, TimeUnit.MILLISECONDS);
+
+        // then
+        assertTrue(acquired);
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    // TEST HELPERS
+
+    private void acquire() throws InterruptedException {
+        assertTrue(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+    }
+
+}
@@ -0,0 +1,108 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CircuitBreakerTest {
+
+    private long now = 0;
+
+    private final CircuitBreaker breaker = new CircuitBreaker("test.com", 50, () -> now);
+
+    @Test
+    public void staysClosedBelowMinCalls() {
+        // when
+        fail(CircuitBreaker.MIN_CALLS - 1);
+
+        // then
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void staysClosedBelowFailureRate() {
+        // when
+        succeed(6);
+        fail(4);
+
+        // then
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(40, breaker.getFailureRate());
+    }
+
+    @Test
+    public void opensAtFailureRate() {
+        // when
+        succeed(5);
+        fail(5);
+
+        // then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.OPEN_DURATION_MILLIS, breaker.getRemainingOpenMillis());
+    }
+
+    @Test
+    public void halfOpenPermitsSingleProbe() {
+        // given
+        fail(CircuitBreaker.MIN_CALLS);
+
+        // when
+        now += CircuitBreaker.OPEN_DURATION_MILLIS;
+
+        // then
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void successfulProbeCloses() {
+        // given
+        fail(CircuitBreaker.MIN_CALLS);
+        now += CircuitBreaker.OPEN_DURATION_MILLIS;
+        breaker.tryAcquirePermission();
+
+        // when
+        breaker.onSuccess();
+
+        // then
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getFailureRate());
+    }
+
+    @Test
+    public void failedProbeReopens() {
+        // given
+        fail(CircuitBreaker.MIN_CALLS);
+        now += CircuitBreaker.OPEN_DURATION_MILLIS;
+        breaker.tryAcquirePermission();
+
+        // when
+        breaker.onFailure();
+
+        // then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    // HELPERS
+
+    private void succeed(int times) {
+        for (int i = 0; i < times; i++) {
+            breaker.tryAcquirePermission();
+            breaker.onSuccess();
+        }
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            breaker.tryAcquirePermission();
+            breaker.onFailure();
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import org.apache.http.client.methods.HttpGet;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DeadlineTest {
+
+    @Test
+    public void after_notYetPassed() {
+        // when
+        Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+
+        // then
+        assertFalse(deadline.isExpired());
+        assertTrue(deadline.remainingMillis() > TimeUnit.SECONDS.toMillis(50));
+        assertTrue(deadline.remainingMillis() <= TimeUnit.MINUTES.toMillis(1));
+    }
+
+    @Test
+    public void after_passed() {
+        // when
+        Deadline deadline = Deadline.after(0, TimeUnit.MILLISECONDS);
+
+        // then
+        assertTrue(deadline.isExpired());
+        assertEquals(0, deadline.remainingMillis());
+    }
+
+    @Test
+    public void unbounded_neverPasses() {
+        // when
+        Deadline deadline = Deadline.unbounded();
+
+        // then
+        assertFalse(deadline.isExpired());
+        assertEquals(Long.MAX_VALUE, deadline.remainingMillis());
+    }
+
+    @Test
+    public void cap_shortensTimeoutsToRemaining() {
+        // given
+        Deadline deadline = Deadline.after(10, TimeUnit.SECONDS);
+
+        // then
+        assertEquals(1000, deadline.cap(1000));
+        assertTrue(deadline.cap(60000) <= 10000);
+        assertTrue(deadline.cap(0) <= 10000); // no timeout becomes the remaining time
+        assertEquals(60000, Deadline.unbounded().cap(60000));
+    }
+
+    @Test
+    public void cap_neverDisablesTimeout() {
+        // given
+        Deadline deadline = Deadline.after(0, TimeUnit.MILLISECONDS);
+
+        // then
+        assertEquals(1, deadline.cap(60000));
+    }
+
+    @Test
+    public void cancel_expiresAndAbortsInFlight() {
+        // given
+        Deadline deadline = Deadline.unbounded();
+        HttpGet inFlight = new HttpGet("https://test.com/scans");
+        HttpGet completed = new HttpGet("https://test.com/scans");
+
+        deadline.register(inFlight);
+        deadline.register(completed);
+        deadline.unregister(completed);
+
+        // when
+        deadline.cancel();
+
+        // then
+        assertTrue(deadline.isExpired());
+        assertTrue(deadline.isCancelled());
+        assertEquals(0, deadline.remainingMillis());
+        assertTrue(inFlight.isAborted());
+        assertFalse(completed.isAborted());
+    }
+
+    @Test
+    public void register_afterCancel_aborts() {
+        // given
+        Deadline deadline = Deadline.unbounded();
+        deadline.cancel();
+
+        HttpGet request = new HttpGet("https://test.com/scans");
+
+        // when
+        deadline.register(request);
+
+        // then
+        assertTrue(request.isAborted());
+    }
+
+}
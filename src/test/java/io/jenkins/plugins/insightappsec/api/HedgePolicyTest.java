@@ -0,0 +1,103 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HedgePolicyTest {
+
+    @Test
+    public void getDelayMillis_tooFewSamples() {
+        // given
+        HedgePolicy policy = new HedgePolicy(10);
+
+        // when
+        record(policy, HedgePolicy.MIN_SAMPLES - 1, 100);
+
+        // then
+        assertEquals(-1, policy.getDelayMillis());
+    }
+
+    @Test
+    public void getDelayMillis_p95() {
+        // given
+        HedgePolicy policy = new HedgePolicy(10);
+
+        // when
+        record(policy, 95, 100);
+        record(policy, 5, 5000);
+
+        // then
+        assertEquals(100, policy.getDelayMillis());
+
+        // when
+        record(policy, 1, 5000);
+
+        // then
+        assertEquals(5000, policy.getDelayMillis());
+    }
+
+    @Test
+    public void getDelayMillis_recentSamplesOnly() {
+        // given
+        HedgePolicy policy = new HedgePolicy(10);
+        record(policy, HedgePolicy.SAMPLE_SIZE, 5000);
+
+        // when
+        record(policy, HedgePolicy.SAMPLE_SIZE, 200);
+
+        // then
+        assertEquals(200, policy.getDelayMillis());
+    }
+
+    @Test
+    public void getDelayMillis_neverBelowMin() {
+        // given
+        HedgePolicy policy = new HedgePolicy(10);
+
+        // when
+        record(policy, HedgePolicy.MIN_SAMPLES, 1);
+
+        // then
+        assertEquals(HedgePolicy.MIN_DELAY_MILLIS, policy.getDelayMillis());
+    }
+
+    @Test
+    public void tryAcquireHedge_cappedToShareOfRequests() {
+        // given
+        HedgePolicy policy = new HedgePolicy(10);
+
+        // when
+        int hedges = 0;
+        for (int i = 0; i < 1000; i++) {
+            policy.onRequest();
+            if (policy.tryAcquireHedge()) {
+                hedges++;
+            }
+        }
+
+        // then
+        assertTrue(hedges >= 99 && hedges <= 100);
+    }
+
+    @Test
+    public void tryAcquireHedge_noRequests() {
+        // then
+        assertFalse(new HedgePolicy(10).tryAcquireHedge());
+    }
+
+    // TEST HELPERS
+
+    private static void record(HedgePolicy policy,
+                               int count,
+                               long latencyMillis) {
+        for (int i = 0; i < count; i++) {
+            policy.record(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        }
+    }
+
+}
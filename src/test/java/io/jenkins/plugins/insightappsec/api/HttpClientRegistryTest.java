@@ -0,0 +1,126 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import io.jenkins.plugins.insightappsec.stub.StubInsightAppSecServer;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HttpClientRegistryTest {
+
+    private final AtomicInteger builds = new AtomicInteger();
+    private final HttpClientRegistry registry = new HttpClientRegistry(builder -> builds.incrementAndGet());
+
+    private StubInsightAppSecServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubInsightAppSecServer().start();
+    }
+
+    @After
+    public void tearDown() {
+        registry.close();
+        server.close();
+    }
+
+    @Test
+    public void transport_createsNothingUntilFirstRequest() throws Exception {
+        // when
+        ApiTransport transport = registry.transport("app");
+
+        // then
+        assertFalse(registry.isStarted());
+        assertEquals(0, builds.get());
+
+        // when
+        assertEquals(200, get(transport));
+
+        // then
+        assertTrue(registry.isStarted());
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    public void client_sameNameSameClient() {
+        // when
+        CloseableHttpClient first = registry.client("app");
+        CloseableHttpClient second = registry.client("app");
+
+        // then
+        assertSame(first, second);
+        assertNotSame(first, registry.client("scan"));
+        assertEquals(2, registry.getClientCount());
+    }
+
+    @Test
+    public void reload_rebuildsClientsOnNextRequest() throws Exception {
+        // given
+        ApiTransport transport = registry.transport("app");
+        CloseableHttpClient replaced = registry.client("app");
+
+        // when
+        registry.reload();
+
+        // then
+        assertEquals(0, registry.getClientCount());
+        assertEquals(200, get(transport));
+        assertNotSame(replaced, registry.client("app"));
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    public void reload_replacedClientStillUsable() throws Exception {
+        // given
+        CloseableHttpClient replaced = registry.client("app");
+
+        // when
+        registry.reload();
+
+        // then
+        HttpResponse response = replaced.execute(new HttpGet(server.getBaseUrl() + "/apps"));
+        EntityUtils.consume(response.getEntity());
+
+        assertEquals(200, response.getStatusLine().getStatusCode());
+    }
+
+    @Test
+    public void close_nextRequestStartsOver() throws Exception {
+        // given
+        ApiTransport transport = registry.transport("app");
+        assertEquals(200, get(transport));
+
+        // when
+        registry.close();
+
+        // then
+        assertFalse(registry.isStarted());
+        assertEquals(0, registry.getClientCount());
+
+        assertEquals(200, get(transport));
+        assertTrue(registry.isStarted());
+        assertEquals(2, builds.get());
+    }
+
+    // TEST HELPERS
+
+    private int get(ApiTransport transport) throws Exception {
+        HttpResponse response = transport.execute(new HttpGet(server.getBaseUrl() + "/apps"));
+
+        EntityUtils.consume(response.getEntity());
+
+        return response.getStatusLine().getStatusCode();
+    }
+
+}
@@ -0,0 +1,101 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class PageSizeTest {
+
+    private static final long TARGET_BYTES = 1024 * 1024;
+    private static final long TARGET_LATENCY_MILLIS = 5000;
+
+    private final PageSize adaptive = PageSize.adaptive("test", TARGET_BYTES, TARGET_LATENCY_MILLIS);
+
+    @Test
+    public void fixed_ignoresRecordedPages() {
+        // given
+        PageSize fixed = PageSize.fixed(50);
+
+        // when
+        fixed.record(50, TARGET_BYTES * 10, 0);
+
+        // then
+        assertEquals(50, fixed.get());
+    }
+
+    @Test
+    public void fixed_cappedToMax() {
+        assertEquals(PageSize.MAX_SIZE, PageSize.fixed(5000).get());
+    }
+
+    @Test
+    public void adaptive_initialSize() {
+        assertEquals(PageSize.INITIAL_ADAPTIVE_SIZE, adaptive.get());
+    }
+
+    @Test
+    public void adaptive_largeItems_shrinksToTargetBytes() {
+        // when
+        adaptive.record(100, 100 * 16 * 1024, millis(100));
+
+        // then
+        assertEquals(64, adaptive.get());
+    }
+
+    @Test
+    public void adaptive_smallItems_growsToMax() {
+        // when
+        adaptive.record(100, 100 * 200, millis(100));
+
+        // then
+        assertEquals(PageSize.MAX_SIZE, adaptive.get());
+    }
+
+    @Test
+    public void adaptive_slowItems_shrinksToTargetLatency() {
+        // when
+        adaptive.record(100, 100 * 200, millis(10000));
+
+        // then
+        assertEquals(50, adaptive.get());
+    }
+
+    @Test
+    public void adaptive_hugeItems_keepsMinSize() {
+        // when
+        adaptive.record(10, 10 * TARGET_BYTES, millis(100));
+
+        // then
+        assertEquals(PageSize.MIN_SIZE, adaptive.get());
+    }
+
+    @Test
+    public void adaptive_emptyPage_ignored() {
+        // when
+        adaptive.record(0, 100, millis(100));
+
+        // then
+        assertEquals(PageSize.INITIAL_ADAPTIVE_SIZE, adaptive.get());
+    }
+
+    @Test
+    public void setTargetBytes_appliesToNextSize() {
+        // given
+        adaptive.record(100, 100 * 16 * 1024, millis(100));
+
+        // when
+        adaptive.setTargetBytes(TARGET_BYTES / 2);
+
+        // then
+        assertEquals(32, adaptive.get());
+    }
+
+    // TEST HELPERS
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+}
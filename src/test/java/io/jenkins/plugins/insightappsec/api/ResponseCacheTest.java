@@ -0,0 +1,50 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ResponseCacheTest {
+
+    private final ResponseCache cache = new ResponseCache(2);
+
+    @Test
+    public void put_full_evictsLeastRecentlyUsed() {
+        // given
+        cache.put("a", entry("a"));
+        cache.put("b", entry("b"));
+        cache.get("a");
+
+        // when
+        cache.put("c", entry("c"));
+
+        // then
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    public void put_existingKey_replacesEntry() {
+        // given
+        cache.put("a", entry("old"));
+
+        // when
+        cache.put("a", entry("new"));
+
+        // then
+        assertEquals(1, cache.size());
+        assertEquals("new", cache.get("a").getContent().asText());
+    }
+
+    // TEST HELPERS
+
+    private ResponseCache.Entry entry(String value) {
+        return new ResponseCache.Entry(null, null, value, TextNode.valueOf(value));
+    }
+
+}
@@ -0,0 +1,66 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import io.jenkins.plugins.insightappsec.mock.MockHttpResponse;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.message.BasicHeader;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RetryPolicyTest {
+
+    private final RetryPolicy policy = RetryPolicy.builder()
+                                                  .baseDelayMillis(100)
+                                                  .maxDelayMillis(1000)
+                                                  .build();
+
+    @Test
+    public void isRetryable() {
+        assertTrue(policy.isRetryable(429));
+        assertTrue(policy.isRetryable(503));
+        assertFalse(policy.isRetryable(500));
+        assertFalse(policy.isRetryable(404));
+    }
+
+    @Test
+    public void delayMillis_fullJitterWithinExponentialBound() {
+        for (int i = 0; i < 100; i++) {
+            long first = policy.delayMillis(1, null);
+            long third = policy.delayMillis(3, null);
+            long tenth = policy.delayMillis(10, null);
+
+            assertTrue(first >= 0 && first <= 100);
+            assertTrue(third >= 0 && third <= 400);
+            assertTrue(tenth >= 0 && tenth <= 1000);
+        }
+    }
+
+    @Test
+    public void delayMillis_retryAfterSeconds() {
+        MockHttpResponse response = MockHttpResponse.create(429, new Header[]{new BasicHeader(HttpHeaders.RETRY_AFTER, "0")});
+
+        assertEquals(0, policy.delayMillis(1, response));
+    }
+
+    @Test
+    public void delayMillis_retryAfterCapped() {
+        MockHttpResponse response = MockHttpResponse.create(503, new Header[]{new BasicHeader(HttpHeaders.RETRY_AFTER, "120")});
+
+        assertEquals(1000, policy.delayMillis(1, response));
+    }
+
+    @Test
+    public void delayMillis_retryAfterDate() {
+        String date = DateUtils.formatDate(new Date(System.currentTimeMillis() + 60_000));
+        MockHttpResponse response = MockHttpResponse.create(503, new Header[]{new BasicHeader(HttpHeaders.RETRY_AFTER, date)});
+
+        assertEquals(1000, policy.delayMillis(1, response));
+    }
+
+}
@@ -0,0 +1,147 @@
+package io.jenkins.plugins.insightappsec.api;
+
+import io.jenkins.plugins.insightappsec.exception.APIException;
+import io.jenkins.plugins.insightappsec.exception.DeadlineExceededException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SingleFlightTest {
+
+    private static final long WINDOW_MILLIS = 2000;
+
+    private long now = 0;
+
+    private final ApiMetrics metrics = new ApiMetrics();
+    private final SingleFlight singleFlight = new SingleFlight(WINDOW_MILLIS, () -> now);
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void execute_concurrentCallsShareOneCall() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            return "result-" + calls.incrementAndGet();
+        }, metrics));
+
+        started.await(5, TimeUnit.SECONDS);
+
+        // when
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", this::call, metrics));
+        while (metrics.getCoalesced() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // then
+        assertEquals("result-1", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("result-1", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void execute_resultReusedWithinWindow() {
+        // when
+        String first = singleFlight.execute("key", this::call, metrics);
+        now += WINDOW_MILLIS;
+        String second = singleFlight.execute("key", this::call, metrics);
+
+        // then
+        assertSame(first, second);
+        assertEquals(1, calls.get());
+        assertEquals(1, metrics.getCoalesced());
+    }
+
+    @Test
+    public void execute_resultExpiresAfterWindow() {
+        // when
+        singleFlight.execute("key", this::call, metrics);
+        now += WINDOW_MILLIS + 1;
+        String second = singleFlight.execute("key", this::call, metrics);
+
+        // then
+        assertEquals("result-2", second);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void execute_differentKeysNotShared() {
+        // when
+        singleFlight.execute("key", this::call, metrics);
+        singleFlight.execute("other", this::call, metrics);
+
+        // then
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void execute_failureNotReused() {
+        // given
+        Assert.assertThrows(APIException.class, () -> singleFlight.execute("key", () -> {
+            throw new APIException();
+        }, metrics));
+
+        // when
+        String result = singleFlight.execute("key", this::call, metrics);
+
+        // then
+        assertEquals("result-1", result);
+    }
+
+    @Test
+    public void execute_leaderOutOfTime_followerCallsAgain() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            throw new DeadlineExceededException("GET", "/scans/id", null);
+        }, metrics));
+
+        started.await(5, TimeUnit.SECONDS);
+
+        // when
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", this::call, metrics));
+        while (metrics.getCoalesced() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // then
+        ExecutionException thrown = Assert.assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertTrue(thrown.getCause() instanceof DeadlineExceededException);
+        assertEquals("result-1", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    // HELPERS
+
+    private String call() {
+        return "result-" + calls.incrementAndGet();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package io.jenkins.plugins.insightappsec.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.jenkins.plugins.insightappsec.api.Page;
+import io.jenkins.plugins.insightappsec.api.app.App;
+import io.jenkins.plugins.insightappsec.api.scanconfig.ScanConfig;
+import io.jenkins.plugins.insightappsec.api.vulnerability.Vulnerability;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.jenkins.plugins.insightappsec.MappingConfiguration.OBJECT_MAPPER_INSTANCE;
+
+/**
+ * Synthetic API payloads of realistic sizes. Generated from a fixed seed, so runs are comparable.
+ */
+public class BenchmarkPayloads {
+
+    static final int REQUEST_BYTES = 800;
+    static final int RESPONSE_BYTES = 6 * 1024;
+
+    private static final String[] SEVERITIES = {"CRITICAL", "HIGH", "MEDIUM", "LOW", "INFORMATIONAL"};
+    private static final String[] HTML_WORDS = {"<div class=\"content\">", "</div>", "<p>", "</p>", "<a href=\"/path\">",
+                                                "</a>", "<script src=\"/static/app.js\"></script>", "lorem", "ipsum",
+                                                "dolor", "sit", "amet", "<input type=\"hidden\" name=\"token\" value=\""};
+
+    private BenchmarkPayloads() {
+    }
+
+    /**
+     * @return a vulnerability with two variances, each carrying an original and two attack exchanges.
+     */
+    public static Vulnerability vulnerability(int index) {
+        Random random = new Random(index);
+
+        return Vulnerability.builder()
+                            .severity(SEVERITIES[index % SEVERITIES.length])
+                            .status("UNREVIEWED")
+                            .rootCause(Vulnerability.RootCause.builder()
+                                                              .url("https://app.example.com/page/" + index)
+                                                              .parameter("q")
+                                                              .method("GET")
+                                                              .build())
+                            .variances(IntStream.range(0, 2)
+                                                .mapToObj(v -> variance(random))
+                                                .collect(Collectors.toList()))
+                            .build();
+    }
+
+    public static App app(int index) {
+        return new App(new UUID(0, index).toString(), "App " + index);
+    }
+
+    public static ScanConfig scanConfig(int index) {
+        return new ScanConfig(new UUID(1, index).toString(), "Scan Config " + index);
+    }
+
+    public static <T> Page<T> page(IntFunction<T> items,
+                                   int size,
+                                   int totalPages) {
+        List<T> data = IntStream.range(0, size).mapToObj(items).collect(Collectors.toList());
+
+        return new Page<>(new Page.Metadata(0, totalPages), data);
+    }
+
+    public static byte[] json(Object value) {
+        try {
+            return OBJECT_MAPPER_INSTANCE.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // HELPERS
+
+    private static Vulnerability.Variance variance(Random random) {
+        return Vulnerability.Variance.builder()
+                                     .originalValue("search")
+                                     .originalExchange(exchange(random))
+                                     .attackValue("'\"><script>alert(1)</script>")
+                                     .attackExchanges(IntStream.range(0, 2)
+                                                               .mapToObj(e -> exchange(random))
+                                                               .collect(Collectors.toList()))
+                                     .message("The attack value was reflected in the response")
+                                     .build();
+    }
+
+    private static Vulnerability.Variance.Exchange exchange(Random random) {
+        return Vulnerability.Variance.Exchange.builder()
+                                              .request("GET /page?q=search HTTP/1.1\r\nHost: app.example.com\r\n" + text(random, REQUEST_BYTES))
+                                              .response("HTTP/1.1 200 OK\r\nContent-Type: text/html\r\n\r\n" + text(random, RESPONSE_BYTES))
+                                              .build();
+    }
+
+    private static String text(Random random,
+                               int length) {
+        StringBuilder text = new StringBuilder(length + 64);
+
+        while (text.length() < length) {
+            text.append(HTML_WORDS[random.nextInt(HTML_WORDS.length)]).append(' ');
+            if (random.nextInt(8) == 0) {
+                text.append(Long.toHexString(random.nextLong())).append('\n');
+            }
+        }
+
+        return text.toString();
+    }
+
+}
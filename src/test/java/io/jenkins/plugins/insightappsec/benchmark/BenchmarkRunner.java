@@ -0,0 +1,38 @@
+package io.jenkins.plugins.insightappsec.benchmark;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the benchmarks of this package, reporting throughput, sampled latency percentiles (p99 included)
+ * and the allocation rate per operation (as {@code -prof gc}).
+ * <p>
+ * Usage: {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=io.jenkins.plugins.insightappsec.benchmark.BenchmarkRunner [-Dexec.args=<regex>]}
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*Benchmark";
+
+        ChainedOptionsBuilder options = new OptionsBuilder().include(include)
+                                                            .mode(Mode.Throughput)
+                                                            .mode(Mode.SampleTime)
+                                                            .timeUnit(TimeUnit.MILLISECONDS)
+                                                            .warmupIterations(3)
+                                                            .warmupTime(TimeValue.seconds(2))
+                                                            .measurementIterations(5)
+                                                            .measurementTime(TimeValue.seconds(2))
+                                                            .forks(1)
+                                                            .addProfiler(GCProfiler.class);
+
+        new Runner(options.build()).run();
+    }
+
+}
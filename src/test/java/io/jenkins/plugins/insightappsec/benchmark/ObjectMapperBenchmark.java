@@ -0,0 +1,56 @@
+package io.jenkins.plugins.insightappsec.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.jenkins.plugins.insightappsec.MappingConfiguration;
+import io.jenkins.plugins.insightappsec.api.Page;
+import io.jenkins.plugins.insightappsec.api.vulnerability.Vulnerability;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Compares ways of mapping a page with the settings of {@link MappingConfiguration#createObjectMapper()}:
+ * the shared mapper with a cached reader, the shared mapper resolving the type per call, and a new mapper per call.
+ */
+@State(Scope.Benchmark)
+public class ObjectMapperBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private byte[] page;
+
+    private ObjectMapper mapper;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() {
+        page = BenchmarkPayloads.json(BenchmarkPayloads.page(BenchmarkPayloads::vulnerability, PAGE_SIZE, 1));
+
+        mapper = MappingConfiguration.createObjectMapper();
+        JavaType pageType = mapper.getTypeFactory().constructParametricType(Page.class, Vulnerability.class);
+        reader = mapper.readerFor(pageType);
+    }
+
+    @Benchmark
+    public Page<Vulnerability> cachedReader() throws IOException {
+        return reader.readValue(page);
+    }
+
+    @Benchmark
+    public Page<Vulnerability> sharedMapper() throws IOException {
+        return mapper.readValue(page, mapper.getTypeFactory().constructParametricType(Page.class, Vulnerability.class));
+    }
+
+    @Benchmark
+    public Page<Vulnerability> newMapper() throws IOException {
+        ObjectMapper newMapper = MappingConfiguration.createObjectMapper();
+
+        return newMapper.readValue(page, newMapper.getTypeFactory().constructParametricType(Page.class, Vulnerability.class));
+    }
+
+}
@@ -0,0 +1,76 @@
+package io.jenkins.plugins.insightappsec.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.jenkins.plugins.insightappsec.api.Page;
+import io.jenkins.plugins.insightappsec.api.app.App;
+import io.jenkins.plugins.insightappsec.api.scanconfig.ScanConfig;
+import io.jenkins.plugins.insightappsec.api.vulnerability.Vulnerability;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static io.jenkins.plugins.insightappsec.MappingConfiguration.OBJECT_MAPPER_INSTANCE;
+
+/**
+ * Maps a page of each result type the way the API does: a cached reader over a parser on the response stream.
+ */
+@State(Scope.Benchmark)
+public class PageParsingBenchmark {
+
+    @Param({"100", "1000"})
+    private int pageSize;
+
+    private byte[] vulnerabilityPage;
+    private byte[] appPage;
+    private byte[] scanConfigPage;
+
+    private ObjectReader vulnerabilityReader;
+    private ObjectReader appReader;
+    private ObjectReader scanConfigReader;
+
+    @Setup
+    public void setUp() {
+        vulnerabilityPage = BenchmarkPayloads.json(BenchmarkPayloads.page(BenchmarkPayloads::vulnerability, pageSize, 1));
+        appPage = BenchmarkPayloads.json(BenchmarkPayloads.page(BenchmarkPayloads::app, pageSize, 1));
+        scanConfigPage = BenchmarkPayloads.json(BenchmarkPayloads.page(BenchmarkPayloads::scanConfig, pageSize, 1));
+
+        vulnerabilityReader = pageReaderFor(Vulnerability.class);
+        appReader = pageReaderFor(App.class);
+        scanConfigReader = pageReaderFor(ScanConfig.class);
+    }
+
+    @Benchmark
+    public Page<Vulnerability> vulnerabilities() throws IOException {
+        return read(vulnerabilityReader, vulnerabilityPage);
+    }
+
+    @Benchmark
+    public Page<App> apps() throws IOException {
+        return read(appReader, appPage);
+    }
+
+    @Benchmark
+    public Page<ScanConfig> scanConfigs() throws IOException {
+        return read(scanConfigReader, scanConfigPage);
+    }
+
+    // HELPERS
+
+    static ObjectReader pageReaderFor(Class<?> clazz) {
+        return OBJECT_MAPPER_INSTANCE.readerFor(OBJECT_MAPPER_INSTANCE.getTypeFactory().constructParametricType(Page.class, clazz));
+    }
+
+    private static <T> Page<T> read(ObjectReader reader,
+                                    byte[] content) throws IOException {
+        try (JsonParser parser = OBJECT_MAPPER_INSTANCE.getFactory().createParser(new ByteArrayInputStream(content))) {
+            return reader.readValue(parser);
+        }
+    }
+
+}
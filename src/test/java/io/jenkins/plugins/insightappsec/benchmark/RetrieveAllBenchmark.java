@@ -0,0 +1,112 @@
+package io.jenkins.plugins.insightappsec.benchmark;
+
+import io.jenkins.plugins.insightappsec.api.ApiMetrics;
+import io.jenkins.plugins.insightappsec.api.ApiOptions;
+import io.jenkins.plugins.insightappsec.api.ApiTransport;
+import io.jenkins.plugins.insightappsec.api.PageSizes;
+import io.jenkins.plugins.insightappsec.api.RetryPolicy;
+import io.jenkins.plugins.insightappsec.api.search.SearchApi;
+import io.jenkins.plugins.insightappsec.api.search.SearchRequest;
+import io.jenkins.plugins.insightappsec.api.vulnerability.Vulnerability;
+import io.jenkins.plugins.insightappsec.stub.StubInsightAppSecServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Collects all vulnerabilities of a scan over HTTP from the in-process stub server, the way a build does.
+ * Bytes on the wire and pages requested are reported alongside the timings.
+ */
+@State(Scope.Benchmark)
+public class RetrieveAllBenchmark {
+
+    private static final String HOST = "us.api.insight.rapid7.com";
+    private static final SearchRequest SEARCH = new SearchRequest(SearchRequest.SearchType.VULNERABILITY, "vulnerability.scans.id='scan'");
+
+    @Param({"2000"})
+    private int vulnerabilityCount;
+
+    @Param({"1", "4"})
+    private int pageConcurrency;
+
+    @Param({"true", "false"})
+    private boolean compression;
+
+    @Param({"false", "true"})
+    private boolean adaptivePageSize;
+
+    private StubInsightAppSecServer server;
+    private CloseableHttpClient client;
+    private SearchApi searchApi;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new StubInsightAppSecServer().vulnerabilityCount(vulnerabilityCount)
+                                              .vulnerabilities(BenchmarkPayloads::vulnerability)
+                                              .compression(compression)
+                                              .start();
+
+        client = HttpClients.custom()
+                            .setMaxConnTotal(pageConcurrency)
+                            .setMaxConnPerRoute(pageConcurrency)
+                            .build();
+
+        ApiOptions options = ApiOptions.builder()
+                                       .baseUrl(server.getBaseUrl())
+                                       .pageConcurrency(pageConcurrency)
+                                       .pageSizes(adaptivePageSize ? new PageSizes(PageSizes.DEFAULT_TARGET_KILOBYTES * 1024L) : null)
+                                       .retryPolicy(RetryPolicy.NONE)
+                                       .metrics(new ApiMetrics())
+                                       .build();
+
+        searchApi = new SearchApi(ApiTransport.of(client), HOST, "api-key", options);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public List<Vulnerability> searchAll(WireCounters counters) {
+        long bytesBefore = server.getBytesSent();
+        int requestsBefore = server.getRequests();
+
+        List<Vulnerability> vulnerabilities = searchApi.searchAll(SEARCH, Vulnerability.class);
+
+        counters.bytesOnWire += server.getBytesSent() - bytesBefore;
+        counters.pages += server.getRequests() - requestsBefore;
+
+        return vulnerabilities;
+    }
+
+    /**
+     * Reported by JMH next to the timings, as totals per iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireCounters {
+
+        public long bytesOnWire;
+        public long pages;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesOnWire = 0;
+            pages = 0;
+        }
+
+    }
+
+}
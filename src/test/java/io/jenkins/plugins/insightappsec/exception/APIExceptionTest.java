@@ -0,0 +1,54 @@
+package io.jenkins.plugins.insightappsec.exception;
+
+import io.jenkins.plugins.insightappsec.mock.MockHttpResponse;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class APIExceptionTest {
+
+    @Test
+    public void isRetryable_noResponse() {
+        // given
+        APIException e = new APIException("Error occurred during GET", new IOException("Connection reset"));
+
+        // then
+        assertNull(e.getStatusCode());
+        assertTrue(e.isRetryable());
+    }
+
+    @Test
+    public void isRetryable_transientStatus() {
+        for (int statusCode : new int[]{408, 429, 500, 502, 503, 504}) {
+            // given
+            APIException e = new APIException("Error", MockHttpResponse.create(statusCode));
+
+            // then
+            assertEquals(Integer.valueOf(statusCode), e.getStatusCode());
+            assertTrue(e.isRetryable());
+        }
+    }
+
+    @Test
+    public void isRetryable_clientError() {
+        for (int statusCode : new int[]{400, 401, 403, 404}) {
+            // given
+            APIException e = new APIException("Error", MockHttpResponse.create(statusCode));
+
+            // then
+            assertFalse(e.isRetryable());
+        }
+    }
+
+    @Test
+    public void isRetryable_deadlineExceeded() {
+        // then
+        assertFalse(new DeadlineExceededException("GET", "/scans/id", null).isRetryable());
+    }
+
+}
@@ -0,0 +1,427 @@
+package io.jenkins.plugins.insightappsec.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jenkins.plugins.insightappsec.api.Identifiable;
+import io.jenkins.plugins.insightappsec.api.Page;
+import io.jenkins.plugins.insightappsec.api.scan.Scan;
+import io.jenkins.plugins.insightappsec.api.scan.ScanAction;
+import io.jenkins.plugins.insightappsec.api.scan.ScanExecutionDetails;
+import io.jenkins.plugins.insightappsec.api.search.SearchRequest;
+import io.jenkins.plugins.insightappsec.api.vulnerability.Vulnerability;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static io.jenkins.plugins.insightappsec.MappingConfiguration.OBJECT_MAPPER_INSTANCE;
+import static io.jenkins.plugins.insightappsec.api.app.AppModels.aCompleteApp;
+import static io.jenkins.plugins.insightappsec.api.scanconfig.ScanConfigModels.aCompleteScanConfig;
+import static io.jenkins.plugins.insightappsec.api.vulnerability.VulnerabilityModels.aCompleteVulnerability;
+
+/**
+ * An in-process stand-in for the Application Security API, for tests and benchmarks.
+ * Implements scan submission, status, execution details and actions, apps and search,
+ * with configurable latency, result counts and error injection.
+ * Responses are gzip encoded when the request accepts it, and the bytes written are counted.
+ */
+public class StubInsightAppSecServer implements AutoCloseable {
+
+    private static final String BASE_PATH = "/ias/v1";
+
+    private static final Pattern SCAN_PATH = Pattern.compile(BASE_PATH + "/scans/([^/]+)(/execution-details|/action)?");
+    private static final Pattern SCAN_ID_QUERY = Pattern.compile("scan\\.id='([^']+)'");
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final Map<String, StubScan> scans = new ConcurrentHashMap<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final Map<String, AtomicInteger> requestsByPath = new ConcurrentHashMap<>();
+
+    // CONFIGURATION
+
+    private volatile long latencyMillis;
+    private volatile int appCount = 10;
+    private volatile int scanConfigCount = 10;
+    private volatile int vulnerabilityCount = 10;
+    private volatile IntFunction<Vulnerability> vulnerabilities = index -> aCompleteVulnerability().build();
+    private volatile List<Scan.ScanStatus> statusProgression = Arrays.asList(Scan.ScanStatus.QUEUED,
+                                                                             Scan.ScanStatus.RUNNING,
+                                                                             Scan.ScanStatus.COMPLETE);
+    private volatile int failEvery;
+    private volatile int failureStatus = HttpStatus.SC_SERVICE_UNAVAILABLE;
+    private volatile boolean compression = true;
+
+    public StubInsightAppSecServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(BASE_PATH, this::handle);
+        server.setExecutor(executor);
+    }
+
+    public StubInsightAppSecServer start() {
+        server.start();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return the base URL to configure the API with, e.g. {@code http://127.0.0.1:1234/ias/v1}.
+     */
+    public String getBaseUrl() {
+        return String.format("http://%s:%s%s",
+                             server.getAddress().getHostString(),
+                             server.getAddress().getPort(),
+                             BASE_PATH);
+    }
+
+    /**
+     * Delay every response.
+     */
+    public StubInsightAppSecServer latencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    public StubInsightAppSecServer appCount(int appCount) {
+        this.appCount = appCount;
+        return this;
+    }
+
+    public StubInsightAppSecServer scanConfigCount(int scanConfigCount) {
+        this.scanConfigCount = scanConfigCount;
+        return this;
+    }
+
+    public StubInsightAppSecServer vulnerabilityCount(int vulnerabilityCount) {
+        this.vulnerabilityCount = vulnerabilityCount;
+        return this;
+    }
+
+    /**
+     * @param vulnerabilities creates the vulnerability at an index of the search results.
+     */
+    public StubInsightAppSecServer vulnerabilities(IntFunction<Vulnerability> vulnerabilities) {
+        this.vulnerabilities = vulnerabilities;
+        return this;
+    }
+
+    /**
+     * @param statuses the statuses a submitted scan reports, advancing by one per GET of the scan and then staying at the last.
+     */
+    public StubInsightAppSecServer statusProgression(Scan.ScanStatus... statuses) {
+        this.statusProgression = Arrays.asList(statuses);
+        return this;
+    }
+
+    /**
+     * Fail every nth request with the status, 0 to never fail.
+     */
+    public StubInsightAppSecServer failEvery(int failEvery,
+                                             int failureStatus) {
+        this.failEvery = failEvery;
+        this.failureStatus = failureStatus;
+        return this;
+    }
+
+    /**
+     * Whether to gzip encode responses when the request accepts it.
+     */
+    public StubInsightAppSecServer compression(boolean compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    // STATISTICS
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return the requests received for a path below the base URL, e.g. {@code /search}, ignoring ids.
+     */
+    public int getRequests(String path) {
+        AtomicInteger count = requestsByPath.get(path);
+
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * @return the response body bytes written, after any compression.
+     */
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    public void resetStatistics() {
+        requests.set(0);
+        bytesSent.set(0);
+        requestsByPath.clear();
+    }
+
+    /**
+     * @return the actions submitted for a scan, in order.
+     */
+    public List<ScanAction.Action> getActions(String scanId) {
+        StubScan scan = scans.get(scanId);
+
+        return scan == null ? Collections.emptyList() : new ArrayList<>(scan.actions);
+    }
+
+    // HANDLERS
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            URI uri = exchange.getRequestURI();
+            String path = uri.getPath();
+            int request = requests.incrementAndGet();
+
+            requestsByPath.computeIfAbsent(normalize(path), p -> new AtomicInteger()).incrementAndGet();
+
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+
+            if (failEvery > 0 && request % failEvery == 0) {
+                respond(exchange, failureStatus, null);
+                return;
+            }
+
+            String method = exchange.getRequestMethod();
+            Map<String, String> params = params(uri);
+            Matcher scanPath = SCAN_PATH.matcher(path);
+
+            if ("POST".equals(method) && path.equals(BASE_PATH + "/scans")) {
+                submitScan(exchange);
+            } else if ("POST".equals(method) && path.equals(BASE_PATH + "/search")) {
+                search(exchange, params);
+            } else if ("GET".equals(method) && path.equals(BASE_PATH + "/apps")) {
+                respondWithPage(exchange, params, appCount, index -> aCompleteApp().build());
+            } else if (scanPath.matches()) {
+                handleScan(exchange, method, scanPath.group(1), scanPath.group(2));
+            } else {
+                respond(exchange, HttpStatus.SC_NOT_FOUND, null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, HttpStatus.SC_SERVICE_UNAVAILABLE, null);
+        } catch (RuntimeException e) {
+            respond(exchange, HttpStatus.SC_INTERNAL_SERVER_ERROR, null);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void submitScan(HttpExchange exchange) throws IOException {
+        Scan body = OBJECT_MAPPER_INSTANCE.readValue(readBody(exchange), Scan.class);
+        String id = UUID.randomUUID().toString();
+
+        scans.put(id, new StubScan(id, body.getScanConfig()));
+
+        exchange.getResponseHeaders().add(HttpHeaders.LOCATION, getBaseUrl() + "/scans/" + id);
+        respond(exchange, HttpStatus.SC_CREATED, null);
+    }
+
+    private void handleScan(HttpExchange exchange,
+                            String method,
+                            String scanId,
+                            String subResource) throws IOException {
+        StubScan scan = scans.get(scanId);
+
+        if (scan == null) {
+            respond(exchange, HttpStatus.SC_NOT_FOUND, null);
+        } else if ("GET".equals(method) && subResource == null) {
+            respond(exchange, HttpStatus.SC_OK, scan.advance());
+        } else if ("GET".equals(method) && "/execution-details".equals(subResource)) {
+            respond(exchange, HttpStatus.SC_OK, ScanExecutionDetails.builder()
+                                                                   .linksCrawled(scan.polls.get() * 10)
+                                                                   .requests(scan.polls.get() * 100)
+                                                                   .build());
+        } else if ("PUT".equals(method) && "/action".equals(subResource)) {
+            ScanAction action = OBJECT_MAPPER_INSTANCE.readValue(readBody(exchange), ScanAction.class);
+
+            scan.actions.add(action.getAction());
+            scan.stopped = true;
+
+            respond(exchange, HttpStatus.SC_OK, null);
+        } else {
+            respond(exchange, HttpStatus.SC_METHOD_NOT_ALLOWED, null);
+        }
+    }
+
+    private void search(HttpExchange exchange,
+                        Map<String, String> params) throws IOException {
+        SearchRequest request = OBJECT_MAPPER_INSTANCE.readValue(readBody(exchange), SearchRequest.class);
+
+        switch (request.getType()) {
+            case VULNERABILITY:
+                respondWithPage(exchange, params, vulnerabilityCount, vulnerabilities);
+                break;
+            case SCAN_CONFIG:
+                respondWithPage(exchange, params, scanConfigCount, index -> aCompleteScanConfig().build());
+                break;
+            case SCAN:
+                List<Scan> found = new ArrayList<>();
+                Matcher ids = SCAN_ID_QUERY.matcher(request.getQuery());
+
+                while (ids.find()) {
+                    StubScan scan = scans.get(ids.group(1));
+                    if (scan != null) {
+                        found.add(scan.advance());
+                    }
+                }
+
+                respondWithPage(exchange, params, found.size(), found::get);
+                break;
+            default:
+                respond(exchange, HttpStatus.SC_BAD_REQUEST, null);
+        }
+    }
+
+    private <T> void respondWithPage(HttpExchange exchange,
+                                     Map<String, String> params,
+                                     int total,
+                                     IntFunction<T> items) throws IOException {
+        int index = Integer.parseInt(params.getOrDefault("index", "0"));
+        int size = Integer.parseInt(params.getOrDefault("size", "50"));
+        int totalPages = (total + size - 1) / size;
+
+        List<T> data = IntStream.range(Math.min(index * size, total), Math.min((index + 1) * size, total))
+                                .mapToObj(items)
+                                .collect(Collectors.toList());
+
+        respond(exchange, HttpStatus.SC_OK, new Page<>(new Page.Metadata(index, totalPages), data));
+    }
+
+    // HELPERS
+
+    private void respond(HttpExchange exchange,
+                         int status,
+                         Object body) throws IOException {
+        // an unread request body would be taken for the next request on the connection
+        IOUtils.toByteArray(exchange.getRequestBody());
+
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+
+        byte[] content = OBJECT_MAPPER_INSTANCE.writeValueAsBytes(body);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+
+        if (compression && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            content = gzip(content);
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+        exchange.sendResponseHeaders(status, content.length);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(content);
+        }
+
+        bytesSent.addAndGet(content.length);
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        InputStream body = exchange.getRequestBody();
+
+        if ("gzip".equals(exchange.getRequestHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+            body = new GZIPInputStream(body);
+        }
+
+        return IOUtils.toByteArray(body);
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+
+        return compressed.toByteArray();
+    }
+
+    private static Map<String, String> params(URI uri) {
+        Map<String, String> params = new HashMap<>();
+
+        if (uri.getRawQuery() != null) {
+            for (String param : uri.getRawQuery().split("&")) {
+                String[] pair = param.split("=", 2);
+                params.put(pair[0], pair.length > 1 ? pair[1] : "");
+            }
+        }
+
+        return params;
+    }
+
+    private static String normalize(String path) {
+        String relative = path.substring(BASE_PATH.length());
+        Matcher scanPath = SCAN_PATH.matcher(path);
+
+        return scanPath.matches() ? "/scans/{id}" + (scanPath.group(2) == null ? "" : scanPath.group(2)) : relative;
+    }
+
+    private class StubScan {
+
+        private final String id;
+        private final Identifiable scanConfig;
+        private final AtomicInteger polls = new AtomicInteger();
+        private final List<ScanAction.Action> actions = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean stopped;
+
+        private StubScan(String id,
+                         Identifiable scanConfig) {
+            this.id = id;
+            this.scanConfig = scanConfig;
+        }
+
+        private Scan advance() {
+            List<Scan.ScanStatus> progression = statusProgression;
+            int poll = polls.getAndIncrement();
+
+            Scan.ScanStatus status = stopped ? Scan.ScanStatus.COMPLETE
+                                             : progression.get(Math.min(poll, progression.size() - 1));
+
+            return new Scan(id, scanConfig, status);
+        }
+
+    }
+
+}
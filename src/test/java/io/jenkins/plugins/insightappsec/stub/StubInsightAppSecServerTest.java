@@ -0,0 +1,225 @@
+package io.jenkins.plugins.insightappsec.stub;
+
+import io.jenkins.plugins.insightappsec.api.ApiMetrics;
+import io.jenkins.plugins.insightappsec.api.ApiOptions;
+import io.jenkins.plugins.insightappsec.api.ApiTransport;
+import io.jenkins.plugins.insightappsec.api.Deadline;
+import io.jenkins.plugins.insightappsec.api.RetryPolicy;
+import io.jenkins.plugins.insightappsec.api.app.App;
+import io.jenkins.plugins.insightappsec.api.app.AppApi;
+import io.jenkins.plugins.insightappsec.api.scan.Scan;
+import io.jenkins.plugins.insightappsec.api.scan.ScanAction;
+import io.jenkins.plugins.insightappsec.api.scan.ScanApi;
+import io.jenkins.plugins.insightappsec.api.search.SearchApi;
+import io.jenkins.plugins.insightappsec.api.search.SearchRequest;
+import io.jenkins.plugins.insightappsec.api.vulnerability.Vulnerability;
+import io.jenkins.plugins.insightappsec.exception.APIException;
+import io.jenkins.plugins.insightappsec.exception.DeadlineExceededException;
+import org.apache.http.HttpStatus;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Exercises the APIs over HTTP against the stub server, through the transport SPI and a base URL override.
+ */
+public class StubInsightAppSecServerTest {
+
+    private static final String HOST = "us.api.insight.rapid7.com";
+    private static final String API_KEY = "api-key";
+
+    private StubInsightAppSecServer server;
+    private CloseableHttpClient client;
+    private ApiOptions options;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubInsightAppSecServer().start();
+        client = HttpClients.createDefault();
+        options = ApiOptions.builder()
+                            .baseUrl(server.getBaseUrl())
+                            .retryPolicy(RetryPolicy.builder().baseDelayMillis(1).build())
+                            .metrics(new ApiMetrics())
+                            .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void scan_submitPollAndStop() {
+        // given
+        ScanApi scanApi = new ScanApi(ApiTransport.of(client), HOST, API_KEY, options);
+        server.statusProgression(Scan.ScanStatus.QUEUED, Scan.ScanStatus.RUNNING);
+
+        // when
+        String scanId = scanApi.submitScan("scan-config-id");
+
+        // then
+        assertEquals(Scan.ScanStatus.QUEUED, scanApi.getScan(scanId).getStatus());
+        assertEquals(Scan.ScanStatus.RUNNING, scanApi.getScan(scanId).getStatus());
+        assertEquals("scan-config-id", scanApi.getScan(scanId).getScanConfig().getId());
+        assertTrue(scanApi.getScanExecutionDetails(scanId).getRequests() > 0);
+
+        // when
+        scanApi.submitScanAction(scanId, new ScanAction(ScanAction.Action.STOP));
+
+        // then
+        assertEquals(Collections.singletonList(ScanAction.Action.STOP), server.getActions(scanId));
+        assertEquals(Scan.ScanStatus.COMPLETE, scanApi.getScan(scanId).getStatus());
+    }
+
+    @Test
+    public void scan_lookUpMany() {
+        // given
+        ScanApi scanApi = new ScanApi(ApiTransport.of(client), HOST, API_KEY, options);
+        String first = scanApi.submitScan("scan-config-id");
+        String second = scanApi.submitScan("scan-config-id");
+
+        // when
+        Map<String, Scan> scans = scanApi.getScans(Arrays.asList(first, second, "unknown"));
+
+        // then
+        assertEquals(2, scans.size());
+        assertEquals(1, server.getRequests("/search"));
+    }
+
+    @Test
+    public void apps_allPages() {
+        // given
+        AppApi appApi = new AppApi(ApiTransport.of(client), HOST, API_KEY, options);
+        server.appCount(2500);
+
+        // when
+        List<App> apps = appApi.getApps();
+
+        // then
+        assertEquals(2500, apps.size());
+        assertEquals(3, server.getRequests("/apps"));
+    }
+
+    @Test
+    public void search_injectedErrors_retried() {
+        // given
+        SearchApi searchApi = new SearchApi(ApiTransport.of(client), HOST, API_KEY, options);
+        // every other request fails, i.e. the first attempt at each page after the first
+        server.vulnerabilityCount(2500)
+              .failEvery(2, HttpStatus.SC_SERVICE_UNAVAILABLE);
+
+        // when
+        List<Vulnerability> vulnerabilities = searchApi.searchAll(new SearchRequest(SearchRequest.SearchType.VULNERABILITY, "query"),
+                                                                  Vulnerability.class);
+
+        // then
+        assertEquals(2500, vulnerabilities.size());
+        assertEquals(2, options.getMetrics().getRetries());
+    }
+
+    @Test
+    public void search_injectedServerError_notRetried() {
+        // given
+        SearchApi searchApi = new SearchApi(ApiTransport.of(client), HOST, API_KEY, options);
+        server.failEvery(1, HttpStatus.SC_INTERNAL_SERVER_ERROR);
+
+        // when
+        Assert.assertThrows(APIException.class, () -> searchApi.searchAll(new SearchRequest(SearchRequest.SearchType.VULNERABILITY, "query"),
+                                                                          Vulnerability.class));
+
+        // then
+        assertEquals(1, server.getRequests());
+    }
+
+    @Test
+    public void search_compressedResponses_fewerBytesOnTheWire() {
+        // given
+        SearchApi searchApi = new SearchApi(ApiTransport.of(client), HOST, API_KEY, options);
+        SearchRequest request = new SearchRequest(SearchRequest.SearchType.VULNERABILITY, "query");
+        server.vulnerabilityCount(500);
+
+        server.compression(false);
+        List<Vulnerability> uncompressed = searchApi.searchAll(request, Vulnerability.class);
+        long uncompressedBytes = server.getBytesSent();
+
+        server.resetStatistics();
+        server.compression(true);
+
+        // when
+        List<Vulnerability> compressed = searchApi.searchAll(request, Vulnerability.class);
+
+        // then
+        assertEquals(uncompressed, compressed);
+        assertTrue(server.getBytesSent() * 5 < uncompressedBytes);
+    }
+
+    @Test
+    public void scan_hungServer_timesOut() {
+        // given
+        ScanApi scanApi = new ScanApi(ApiTransport.of(client), HOST, API_KEY, options.toBuilder()
+                                                                                    .socketTimeoutMillis(200)
+                                                                                    .retryPolicy(RetryPolicy.NONE)
+                                                                                    .build());
+        String scanId = scanApi.submitScan("scan-config-id");
+        server.latencyMillis(TimeUnit.SECONDS.toMillis(5));
+
+        // when
+        long start = System.nanoTime();
+        Assert.assertThrows(APIException.class, () -> scanApi.getScan(scanId));
+
+        // then
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    public void scan_hungServer_boundedByDeadline() {
+        // given
+        ScanApi scanApi = new ScanApi(ApiTransport.of(client), HOST, API_KEY, options.toBuilder()
+                                                                                    .deadline(Deadline.after(300, TimeUnit.MILLISECONDS))
+                                                                                    .build());
+        String scanId = scanApi.submitScan("scan-config-id");
+        server.latencyMillis(TimeUnit.SECONDS.toMillis(5));
+
+        // when
+        long start = System.nanoTime();
+        Assert.assertThrows(DeadlineExceededException.class, () -> scanApi.getScan(scanId));
+
+        // then
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertEquals(0, options.getMetrics().getRetries());
+    }
+
+    @Test
+    public void scan_deadlineCancelled_abortsInFlight() throws Exception {
+        // given
+        Deadline deadline = Deadline.unbounded();
+        ScanApi scanApi = new ScanApi(ApiTransport.of(client), HOST, API_KEY, options.toBuilder()
+                                                                                    .deadline(deadline)
+                                                                                    .build());
+        String scanId = scanApi.submitScan("scan-config-id");
+        server.latencyMillis(TimeUnit.SECONDS.toMillis(5));
+
+        // when
+        long start = System.nanoTime();
+        CompletableFuture.runAsync(deadline::cancel, CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+        Assert.assertThrows(DeadlineExceededException.class, () -> scanApi.getScan(scanId));
+
+        // then
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+}